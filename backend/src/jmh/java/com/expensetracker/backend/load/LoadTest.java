@@ -0,0 +1,183 @@
+package com.expensetracker.backend.load;
+
+import com.expensetracker.backend.BackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load test comparing platform and virtual request threads.
+ *
+ * For each mode the backend is booted in-process on a random port with an
+ * in-memory H2 database, seeded with users and expenses, warmed up, then
+ * driven by N concurrent clients (each a virtual thread issuing requests
+ * back to back) for a fixed duration. Requests mix the paged expense
+ * listing and the budget status, both of which block on JDBC.
+ *
+ * Run:  mvn -Pbenchmarks test-compile exec:exec@load-test
+ *       -Dload.clients=1000 -Dload.duration=30 -Dload.modes=platform,virtual
+ */
+public final class LoadTest {
+
+    private static final int USERS = 50;
+    private static final int EXPENSES_PER_USER = 40;
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("load.clients", 1000);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("load.warmup", 10));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("load.duration", 30));
+        String[] modes = System.getProperty("load.modes", "platform,virtual").split(",");
+
+        List<String> rows = new ArrayList<>();
+        for (String mode : modes) {
+            Result result = run(mode.trim(), clients, warmup, duration);
+            rows.add(result.row());
+            System.out.println(result.row());
+        }
+
+        System.out.println();
+        System.out.println("| mode | clients | requests | errors | req/s | p50 ms | p99 ms | max ms |");
+        System.out.println("|---|---|---|---|---|---|---|---|");
+        rows.forEach(System.out::println);
+    }
+
+    private record Result(String mode, int clients, int requests, int errors,
+                          double throughput, double p50, double p99, double max) {
+
+        String row() {
+            return "| %s | %d | %d | %d | %.0f | %.1f | %.1f | %.1f |".formatted(
+                    mode, clients, requests, errors, throughput, p50, p99, max);
+        }
+    }
+
+    private static Result run(String mode, int clients, Duration warmup, Duration duration) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                        "spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "logging.level.root=WARN")
+                .run();
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(clientThreads)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build()) {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String[] tokens = seed(http, base);
+
+            drive(http, base, tokens, clients, warmup, clientThreads);
+            long started = System.nanoTime();
+            List<long[]> samples = drive(http, base, tokens, clients, duration, clientThreads);
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            int errors = 0;
+            int total = 0;
+            for (long[] s : samples) total += s.length;
+            long[] all = new long[total];
+            int i = 0;
+            for (long[] s : samples) {
+                for (long nanos : s) {
+                    if (nanos < 0) errors++;
+                    all[i++] = Math.abs(nanos);
+                }
+            }
+            Arrays.sort(all);
+            return new Result(mode, clients, total, errors, total / seconds,
+                    percentile(all, 0.50), percentile(all, 0.99), all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+        } finally {
+            context.close();
+        }
+    }
+
+    /** Registers users (distinct X-Forwarded-For to stay under the auth rate limit) and adds expenses. */
+    private static String[] seed(HttpClient http, String base) throws Exception {
+        String[] tokens = new String[USERS];
+        for (int u = 0; u < USERS; u++) {
+            String body = """
+                    {"firstName":"Load","lastName":"User%d","email":"load%d@example.com","password":"LoadPass123"}
+                    """.formatted(u, u);
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/register"))
+                            .header("Content-Type", "application/json")
+                            .header("X-Forwarded-For", "10.0.0." + u)
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            tokens[u] = response.body().replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+
+            for (int e = 0; e < EXPENSES_PER_USER; e++) {
+                String expense = """
+                        {"title":"Item %d","amount":%d,"category":"Food","date":"%s","paymentMethod":"UPI"}
+                        """.formatted(e, 10 + e, Instant.now().minus(Duration.ofDays(e)));
+                http.send(HttpRequest.newBuilder(URI.create(base + "/api/expenses"))
+                                .header("Content-Type", "application/json")
+                                .header("Authorization", "Bearer " + tokens[u])
+                                .POST(HttpRequest.BodyPublishers.ofString(expense))
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding());
+            }
+        }
+        return tokens;
+    }
+
+    /** Runs every client until the deadline; latencies in nanos, negated for failed requests. */
+    private static List<long[]> drive(HttpClient http, String base, String[] tokens, int clients,
+                                      Duration length, ExecutorService threads) throws Exception {
+        long deadline = System.nanoTime() + length.toNanos();
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            String token = tokens[c % tokens.length];
+            futures.add(threads.submit(() -> {
+                long[] samples = new long[1024];
+                int n = 0;
+                while (System.nanoTime() < deadline) {
+                    String path = ThreadLocalRandom.current().nextInt(5) == 0
+                            ? "/api/budget"
+                            : "/api/expenses?limit=20";
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                            .header("Authorization", "Bearer " + token)
+                            .timeout(Duration.ofSeconds(60))
+                            .GET()
+                            .build();
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    long nanos = System.nanoTime() - start;
+                    if (n == samples.length) samples = Arrays.copyOf(samples, n * 2);
+                    samples[n++] = ok ? nanos : -nanos;
+                }
+                return Arrays.copyOf(samples, n);
+            }));
+        }
+        List<long[]> results = new ArrayList<>(clients);
+        for (Future<long[]> f : futures) results.add(f.get());
+        return results;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
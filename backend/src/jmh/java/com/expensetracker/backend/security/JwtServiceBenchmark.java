@@ -0,0 +1,85 @@
+package com.expensetracker.backend.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT cost: what JwtAuthFilter pays to turn a bearer token
+ * into verified claims checked against the principal.
+ *
+ * legacyValidate reproduces the old JwtService (key and parser rebuilt
+ * on every call, token verified twice) as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-minimum-32-bytes-long";
+
+    private JwtService cached;
+    private JwtService uncached;
+    private AuthUser principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = new JwtService(SECRET, Duration.ofSeconds(30), 10_000, new SimpleMeterRegistry());
+        uncached = new JwtService(SECRET, Duration.ZERO, 0, new SimpleMeterRegistry());
+        principal = new AuthUser(42L, "bench@example.com", null);
+        token = cached.generateToken(principal);
+    }
+
+    @Benchmark
+    public String generate() {
+        return uncached.generateToken(principal);
+    }
+
+    @Benchmark
+    public boolean legacyValidate() {
+        String username = legacyClaims(token).getSubject();
+        Claims claims = legacyClaims(token);
+        return username.equals(principal.getUsername())
+                && claims.getExpiration().after(new Date());
+    }
+
+    @Benchmark
+    public boolean validateUncached() {
+        return uncached.isTokenValid(uncached.parseClaims(token), principal);
+    }
+
+    @Benchmark
+    public boolean validateCached() {
+        return cached.isTokenValid(cached.parseClaims(token), principal);
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,47 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.model.Budget;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/** BudgetService.computeStatus for each band of the percentage-used ladder. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BudgetStatusBenchmark {
+
+    @Param({"1200.50", "7450.00", "9333.33", "12000.00"})
+    public String spent;
+
+    private Budget budget;
+    private BigDecimal spentAmount;
+
+    @Setup
+    public void setUp() {
+        budget = Budget.builder()
+                .enabled(true)
+                .monthlyAmount(new BigDecimal("10000.00"))
+                .build();
+        spentAmount = new BigDecimal(spent);
+    }
+
+    @Benchmark
+    public String computeStatus() {
+        return BudgetService.computeStatus(budget, spentAmount);
+    }
+}
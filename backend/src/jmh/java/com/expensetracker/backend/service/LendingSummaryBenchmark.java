@@ -0,0 +1,156 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.LendingDtos.LendingSummaryResponse;
+import com.expensetracker.backend.dto.LendingDtos.LendingTotalsRow;
+import com.expensetracker.backend.model.LendingStatus;
+import com.expensetracker.backend.model.LendingType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/lending/summary totals for one user over an in-memory H2
+ * lending table of 100–100k rows.
+ *
+ * loadAllAndFold reproduces the original service: every column of every
+ * row, in date order as findAllByUserId returned them, folded in Java.
+ * groupedQuery is the current GROUP BY (type, status) over
+ * idx_lending_user_type_status, folded by LendingService.summarize.
+ * Both still read every row of the user; the grouped query only stops
+ * shipping and materialising them, which in-process H2 does not charge
+ * for, so compare these on PostgreSQL before drawing conclusions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LendingSummaryBenchmark {
+
+    private static final long USER_ID = 1L;
+
+    @Param({"100", "10000", "100000"})
+    public int lendings;
+
+    private Connection connection;
+    private PreparedStatement loadAll;
+    private PreparedStatement grouped;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        // OPTIMIZE_REUSE_RESULTS=FALSE: H2 would otherwise return the cached result of an unchanged query
+        connection = DriverManager.getConnection(
+                "jdbc:h2:mem:lending_" + lendings + ";DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "");
+
+        try (Statement st = connection.createStatement()) {
+            st.execute("""
+                    CREATE TABLE lending (
+                        id UUID PRIMARY KEY,
+                        user_id BIGINT NOT NULL,
+                        type VARCHAR(20) NOT NULL,
+                        person_name VARCHAR(255) NOT NULL,
+                        original_amount NUMERIC(19, 4) NOT NULL,
+                        returned_amount NUMERIC(19, 4) NOT NULL,
+                        status VARCHAR(20) NOT NULL,
+                        notes VARCHAR(2048),
+                        date TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+                        created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+                        updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+                    )""");
+            st.execute("CREATE INDEX idx_lending_user_date ON lending (user_id, date)");
+            st.execute("CREATE INDEX idx_lending_user_type_status ON lending (user_id, type, status)");
+            // Alternating type, rotating ACTIVE / PARTIAL (half returned) / SETTLED
+            st.execute("""
+                    INSERT INTO lending (id, user_id, type, person_name, original_amount, returned_amount, status,
+                                         notes, date, created_at, updated_at)
+                    SELECT RANDOM_UUID(), %d,
+                           CASE WHEN MOD(X, 2) = 0 THEN 'LENT' ELSE 'BORROWED' END,
+                           'Person ' || MOD(X, 50),
+                           100 + MOD(X, 900),
+                           CASE MOD(X, 3) WHEN 0 THEN 0 WHEN 1 THEN (100 + MOD(X, 900)) / 2 ELSE 100 + MOD(X, 900) END,
+                           CASE MOD(X, 3) WHEN 0 THEN 'ACTIVE' WHEN 1 THEN 'PARTIAL' ELSE 'SETTLED' END,
+                           'note ' || X,
+                           DATEADD(MINUTE, -X, CURRENT_TIMESTAMP), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+                    FROM SYSTEM_RANGE(1, %d)""".formatted(USER_ID, lendings));
+        }
+
+        loadAll = connection.prepareStatement("""
+                SELECT id, type, person_name, original_amount, returned_amount, status, notes, date, created_at, updated_at
+                FROM lending WHERE user_id = ? ORDER BY date DESC""");
+        grouped = connection.prepareStatement("""
+                SELECT type, status, COUNT(*), SUM(original_amount), SUM(original_amount - returned_amount)
+                FROM lending WHERE user_id = ? GROUP BY type, status""");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public BigDecimal loadAllAndFold() throws SQLException {
+        loadAll.setLong(1, USER_ID);
+        BigDecimal owedToYou = BigDecimal.ZERO;
+        BigDecimal youOwe = BigDecimal.ZERO;
+        try (ResultSet rs = loadAll.executeQuery()) {
+            while (rs.next()) {
+                // Read the whole row, as the entity load did
+                rs.getObject(1);
+                String type = rs.getString(2);
+                rs.getString(3);
+                BigDecimal original = rs.getBigDecimal(4);
+                BigDecimal returned = rs.getBigDecimal(5);
+                String status = rs.getString(6);
+                rs.getString(7);
+                rs.getObject(8, OffsetDateTime.class);
+                rs.getObject(9, OffsetDateTime.class);
+                rs.getObject(10, OffsetDateTime.class);
+
+                if (LendingStatus.SETTLED.equals(status)) continue;
+                BigDecimal remaining = original.subtract(returned);
+                if (LendingType.LENT.equals(type)) owedToYou = owedToYou.add(remaining);
+                else youOwe = youOwe.add(remaining);
+            }
+        }
+        return owedToYou.subtract(youOwe);
+    }
+
+    @Benchmark
+    public LendingSummaryResponse groupedQuery() throws SQLException {
+        grouped.setLong(1, USER_ID);
+        List<LendingTotalsRow> rows = new ArrayList<>(6);
+        try (ResultSet rs = grouped.executeQuery()) {
+            while (rs.next()) {
+                rows.add(new LendingTotalsRow(rs.getString(1), rs.getString(2), rs.getLong(3),
+                        rs.getBigDecimal(4), rs.getBigDecimal(5)));
+            }
+        }
+        return LendingService.summarize(rows, List.of());
+    }
+}
@@ -0,0 +1,76 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.RecurringDtos.RecurringRequest;
+import com.expensetracker.backend.model.RecurringExpense;
+import com.expensetracker.backend.model.RecurringFrequency;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedule arithmetic: RecurringService.computeNextDueAt (first due
+ * date for a template) and RecurringScheduler.computeNextOccurrence
+ * (advancing after each generated expense).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecurringScheduleBenchmark {
+
+    @Param({RecurringFrequency.WEEKLY, RecurringFrequency.MONTHLY, RecurringFrequency.YEARLY})
+    public String frequency;
+
+    private RecurringRequest request;
+    private RecurringExpense template;
+    private Instant from;
+
+    @Setup
+    public void setUp() {
+        // Day 31 exercises the short-month clamp
+        request = new RecurringRequest("Rent", new BigDecimal("15000"), "Housing", "BANK_TRANSFER",
+                null, frequency, 31, 5, 2);
+        template = RecurringExpense.builder()
+                .frequency(frequency)
+                .dayOfMonth(31)
+                .dayOfWeek(5)
+                .monthOfYear(2)
+                .build();
+        from = Instant.parse("2026-01-31T10:15:00Z");
+    }
+
+    @Benchmark
+    public Instant computeNextDueAt() {
+        return RecurringService.computeNextDueAt(request, from);
+    }
+
+    @Benchmark
+    public Instant computeNextOccurrence() {
+        return RecurringScheduler.computeNextOccurrence(template, from);
+    }
+
+    /** A year of catch-up, as when the scheduler was down and a template is far behind. */
+    @Benchmark
+    public Instant catchUpOneYear() {
+        Instant due = from;
+        Instant stop = from.plusSeconds(365L * 86_400);
+        while (due.isBefore(stop)) {
+            due = RecurringScheduler.computeNextOccurrence(template, due);
+        }
+        return due;
+    }
+}
@@ -0,0 +1,90 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.ExpenseDtos.ExpenseResponse;
+import com.expensetracker.backend.dto.LendingDtos.LendingResponse;
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.Lending;
+import com.expensetracker.backend.model.LendingPayment;
+import com.expensetracker.backend.model.LendingType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/** Entity → DTO mapping for a full list response (ExpenseService / LendingService toResponse). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"50", "1000"})
+    public int rows;
+
+    private List<Expense> expenses;
+    private List<Lending> lendings;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        expenses = new ArrayList<>(rows);
+        lendings = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            expenses.add(Expense.builder()
+                    .id(UUID.randomUUID())
+                    .title("Expense " + i)
+                    .amount(BigDecimal.valueOf(10 + i))
+                    .category("Food")
+                    .date(now)
+                    .recurringId(i % 4 == 0 ? UUID.randomUUID() : null)
+                    .build());
+
+            Lending l = Lending.builder()
+                    .id(UUID.randomUUID())
+                    .type(LendingType.LENT)
+                    .personName("Person " + i)
+                    .originalAmount(BigDecimal.valueOf(1000))
+                    .returnedAmount(BigDecimal.valueOf(300))
+                    .date(now)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            for (int p = 0; p < 3; p++) {
+                l.getPayments().add(LendingPayment.builder()
+                        .id(UUID.randomUUID())
+                        .lending(l)
+                        .amount(BigDecimal.valueOf(100))
+                        .date(now)
+                        .createdAt(now)
+                        .build());
+            }
+            lendings.add(l);
+        }
+    }
+
+    @Benchmark
+    public List<ExpenseResponse> expenses() {
+        return expenses.stream().map(ExpenseService::toResponse).toList();
+    }
+
+    @Benchmark
+    public List<LendingResponse> lendingsWithPayments() {
+        return lendings.stream().map(LendingService::toResponse).toList();
+    }
+}
@@ -0,0 +1,168 @@
+package com.expensetracker.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Month-to-date spend for one user over an in-memory H2 ledger of
+ * 1k–1M expenses spread across two years.
+ *
+ * Runs the same SQL the three generations of BudgetService issue:
+ * loading every row and filtering in Java (original), a ranged SUM over
+ * (user_id, date), and a lookup in the monthly_spend rollup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SpendAggregationBenchmark {
+
+    private static final long USER_ID = 1L;
+    private static final int DAYS = 730;
+
+    @Param({"1000", "100000", "1000000"})
+    public int expenses;
+
+    private Connection connection;
+    private PreparedStatement loadAll;
+    private PreparedStatement rangeSum;
+    private PreparedStatement ledgerSum;
+    private Timestamp monthStart;
+    private Timestamp monthEnd;
+    private YearMonth month;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        // OPTIMIZE_REUSE_RESULTS=FALSE: H2 would otherwise return the cached result of an unchanged query
+        connection = DriverManager.getConnection("jdbc:h2:mem:spend_" + expenses + ";DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "");
+        Instant end = LocalDate.now(ZoneOffset.UTC).atStartOfDay().toInstant(ZoneOffset.UTC);
+
+        try (Statement st = connection.createStatement()) {
+            st.execute("""
+                    CREATE TABLE expenses (
+                        id UUID PRIMARY KEY,
+                        user_id BIGINT NOT NULL,
+                        date TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+                        amount NUMERIC(19, 4),
+                        category VARCHAR(255),
+                        payment_method VARCHAR(50) NOT NULL
+                    )""");
+            st.execute("CREATE INDEX idx_expenses_user_date ON expenses (user_id, date, id)");
+            st.execute("""
+                    CREATE TABLE monthly_spend (
+                        user_id BIGINT NOT NULL,
+                        spend_year INT NOT NULL,
+                        spend_month INT NOT NULL,
+                        category VARCHAR(255) NOT NULL,
+                        payment_method VARCHAR(50) NOT NULL,
+                        amount NUMERIC(19, 4) NOT NULL,
+                        expense_count INT NOT NULL,
+                        UNIQUE (user_id, spend_year, spend_month, category, payment_method)
+                    )""");
+        }
+
+        // Evenly spaced over the last two years, five categories, amounts 1..500
+        long stepSeconds = DAYS * 86_400L / expenses;
+        try (PreparedStatement ps = connection.prepareStatement("""
+                INSERT INTO expenses (id, user_id, date, amount, category, payment_method)
+                SELECT RANDOM_UUID(), ?, DATEADD(SECOND, -X * %d, CAST(? AS TIMESTAMP(6) WITH TIME ZONE)),
+                       1 + MOD(X, 500), 'C' || MOD(X, 5), 'CASH'
+                FROM SYSTEM_RANGE(1, ?)""".formatted(stepSeconds))) {
+            ps.setLong(1, USER_ID);
+            ps.setObject(2, end.atOffset(ZoneOffset.UTC));
+            ps.setInt(3, expenses);
+            ps.executeUpdate();
+        }
+        try (Statement st = connection.createStatement()) {
+            st.execute("""
+                    INSERT INTO monthly_spend
+                    SELECT user_id, EXTRACT(YEAR FROM date), EXTRACT(MONTH FROM date),
+                           category, payment_method, SUM(amount), COUNT(*)
+                    FROM expenses
+                    GROUP BY user_id, EXTRACT(YEAR FROM date), EXTRACT(MONTH FROM date), category, payment_method""");
+        }
+
+        month = YearMonth.from(end.minusSeconds(86_400L * 15).atZone(ZoneOffset.UTC));
+        monthStart = Timestamp.from(month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+        monthEnd = Timestamp.from(month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+
+        loadAll = connection.prepareStatement("SELECT date, amount FROM expenses WHERE user_id = ?");
+        rangeSum = connection.prepareStatement(
+                "SELECT COALESCE(SUM(amount), 0) FROM expenses WHERE user_id = ? AND date >= ? AND date < ?");
+        ledgerSum = connection.prepareStatement(
+                "SELECT COALESCE(SUM(amount), 0) FROM monthly_spend WHERE user_id = ? AND spend_year = ? AND spend_month = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public BigDecimal loadAllAndFilter() throws SQLException {
+        loadAll.setLong(1, USER_ID);
+        BigDecimal total = BigDecimal.ZERO;
+        try (ResultSet rs = loadAll.executeQuery()) {
+            while (rs.next()) {
+                Timestamp date = rs.getTimestamp(1);
+                if (!date.before(monthStart) && date.before(monthEnd)) {
+                    total = total.add(rs.getBigDecimal(2));
+                }
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal rangeAggregate() throws SQLException {
+        rangeSum.setLong(1, USER_ID);
+        rangeSum.setTimestamp(2, monthStart);
+        rangeSum.setTimestamp(3, monthEnd);
+        return single(rangeSum);
+    }
+
+    @Benchmark
+    public BigDecimal monthlyRollup() throws SQLException {
+        ledgerSum.setLong(1, USER_ID);
+        ledgerSum.setInt(2, month.getYear());
+        ledgerSum.setInt(3, month.getMonthValue());
+        return single(ledgerSum);
+    }
+
+    private static BigDecimal single(PreparedStatement ps) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getBigDecimal(1);
+        }
+    }
+}
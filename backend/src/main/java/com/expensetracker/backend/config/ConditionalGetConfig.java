@@ -0,0 +1,32 @@
+package com.expensetracker.backend.config;
+
+import com.expensetracker.backend.service.DataVersionService;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/** ETag / 304 handling for the endpoints the frontend polls on every navigation. */
+@Configuration
+public class ConditionalGetConfig implements WebMvcConfigurer {
+
+    private final DataVersionService dataVersionService;
+
+    public ConditionalGetConfig(DataVersionService dataVersionService) {
+        this.dataVersionService = dataVersionService;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Everything these return is covered by the user's data version (plus the date)
+        registry.addInterceptor(new DataVersionEtagInterceptor(dataVersionService))
+                .addPathPatterns(
+                        "/api/expenses",
+                        "/api/budget",
+                        "/api/savings",
+                        "/api/lending",
+                        "/api/lending/summary",
+                        "/api/lending/persons",
+                        "/api/recurring"
+                );
+    }
+}
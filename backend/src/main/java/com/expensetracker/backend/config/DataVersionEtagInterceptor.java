@@ -0,0 +1,54 @@
+package com.expensetracker.backend.config;
+
+import com.expensetracker.backend.security.AuthUser;
+import com.expensetracker.backend.service.DataVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Conditional GET for the polled read endpoints.
+ *
+ * The ETag is the user's data version, so a matching If-None-Match is
+ * answered with 304 after one primary-key lookup, before the controller
+ * runs any query or serializes anything. The tag also carries the user
+ * id (a shared browser cache must not replay another user's body) and
+ * the UTC date, because budget and savings change when the month does.
+ *
+ * The version is read before the handler, so a write committing in
+ * between can only pair newer data with an older tag, which costs one
+ * extra full response on the next poll and never a stale 304.
+ */
+public class DataVersionEtagInterceptor implements HandlerInterceptor {
+
+    private final DataVersionService dataVersionService;
+
+    public DataVersionEtagInterceptor(DataVersionService dataVersionService) {
+        this.dataVersionService = dataVersionService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) return true;
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof AuthUser user)) return true;
+
+        long version = dataVersionService.current(user.getId());
+        String etag = "\"u" + user.getId() + "-v" + version + "-"
+                + LocalDate.now(ZoneOffset.UTC).format(DateTimeFormatter.BASIC_ISO_DATE) + "\"";
+
+        // Always revalidate, and only in the user's own browser cache
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        // Sets the ETag header, and status 304 when If-None-Match matches
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
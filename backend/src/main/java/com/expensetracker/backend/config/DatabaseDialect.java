@@ -0,0 +1,32 @@
+package com.expensetracker.backend.config;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * The database behind the pool, for the few statements that need
+ * dialect-specific SQL. Production runs on PostgreSQL; tests run on H2.
+ */
+@Component
+public class DatabaseDialect {
+
+    private final boolean postgres;
+
+    public DatabaseDialect(DataSource dataSource) throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    /**
+     * Picks the PostgreSQL or the H2 form of a statement. Insert-if-absent
+     * is the usual case: PostgreSQL has ON CONFLICT DO NOTHING, H2 a MERGE
+     * that only inserts when no row matches.
+     */
+    public String choose(String postgresSql, String h2Sql) {
+        return postgres ? postgresSql : h2Sql;
+    }
+}
@@ -0,0 +1,76 @@
+package com.expensetracker.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.config.MeterFilter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metric plumbing shared by the whole app.
+ *
+ * HTTP endpoints are timed by Spring MVC (http.server.requests), Hikari
+ * and Hibernate by their Boot binders; services opt in with @Timed. The
+ * uri filter below keeps tag cardinality bounded so one noisy client
+ * cannot create unbounded series.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /** Unmatched paths are tagged uri=UNKNOWN by MVC; this is a backstop if templates ever leak. */
+    @Bean
+    public MeterFilter httpUriLimit(@Value("${metrics.max-uri-tags:200}") int maxUris) {
+        return MeterFilter.maximumAllowableTags("http.server.requests", "uri", maxUris, MeterFilter.deny());
+    }
+
+    /**
+     * Hibernate's own binder reports second-level cache requests per region
+     * (hibernate.second.level.cache.*). This adds what only the cache knows:
+     * size, evictions and the eviction policy, as cache.* and l2.region.*
+     * with cache=l2.<region>.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+            if (!(sessionFactory.getCache().getRegionFactory() instanceof JCacheRegionFactory regionFactory)) {
+                return; // L2_CACHE=false
+            }
+            CacheManager cacheManager = regionFactory.getCacheManager();
+            for (String region : cacheManager.getCacheNames()) {
+                Cache<?, ?> cache = cacheManager.getCache(region).unwrap(Cache.class);
+                String name = "l2." + region;
+                CaffeineCacheMetrics.monitor(registry, cache, name);
+                Gauge.builder("l2.region.max.size", cache,
+                                c -> c.policy().eviction().map(Policy.Eviction::getMaximum).orElse(-1L))
+                        .description("Entry limit of the region before size-based eviction (-1: unbounded)")
+                        .tag("cache", name)
+                        .register(registry);
+                Gauge.builder("l2.region.ttl", cache,
+                                c -> c.policy().expireAfterWrite()
+                                        .map(e -> e.getExpiresAfter(TimeUnit.SECONDS)).orElse(-1L))
+                        .description("Time after write before a region entry expires (-1: never)")
+                        .baseUnit("seconds")
+                        .tag("cache", name)
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.expensetracker.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread model switches.
+ *
+ * spring.threads.virtual.enabled=true (VIRTUAL_THREADS) moves Tomcat
+ * request handling, @Scheduled and @Async onto virtual threads. This
+ * class adds what Boot does not: a shared fan-out executor that follows
+ * the same mode, used by the dashboard and the batch jobs. Database
+ * concurrency stays bounded by Hikari itself: threads beyond
+ * maximum-pool-size wait in getConnection for up to connection-timeout.
+ * The pinning audit is in the README.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    /** One virtual thread per task; callers bound their own concurrency, the pool bounds DB access. */
+    @Bean(name = "fanOutExecutor", destroyMethod = "close")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService virtualFanOutExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fan-out-", 0).factory());
+    }
+
+    @Bean(name = "fanOutExecutor", destroyMethod = "close")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService platformFanOutExecutor(@Value("${app.fan-out.threads:8}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "fan-out-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -31,15 +32,20 @@ public class AuthController {
         return ResponseEntity.ok(authService.register(request));
     }
 
+    // ?bootstrap=true adds preferences, budget and the first expense page, so the app can render without more calls
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public ResponseEntity<AuthResponse> login(
+            @Valid @RequestBody LoginRequest request,
+            @RequestParam(defaultValue = "false") boolean bootstrap
+    ) {
+        return ResponseEntity.ok(authService.login(request, bootstrap));
     }
 
     // New endpoint: returns current authenticated user info
     // Used by frontend to display user's name in greeting/sidebar
+    // ?bootstrap=true: same first-paint data as login, for a reload with a stored token
     @GetMapping("/me")
-    public ResponseEntity<MeResponse> me() {
+    public ResponseEntity<MeResponse> me(@RequestParam(defaultValue = "false") boolean bootstrap) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email;
 
@@ -49,6 +55,6 @@ public class AuthController {
             email = auth.getName();
         }
 
-        return ResponseEntity.ok(authService.me(email));
+        return ResponseEntity.ok(authService.me(email, bootstrap));
     }
 }
\ No newline at end of file
@@ -3,7 +3,9 @@ package com.expensetracker.backend.controller;
 import com.expensetracker.backend.dto.BudgetDtos.BudgetResponse;
 import com.expensetracker.backend.dto.BudgetDtos.BudgetUpdateRequest;
 import com.expensetracker.backend.service.BudgetService;
+import com.expensetracker.backend.service.ReadModelCache;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,14 +14,19 @@ import org.springframework.web.bind.annotation.*;
 public class BudgetController {
 
     private final BudgetService budgetService;
+    private final ReadModelCache readModelCache;
 
-    public BudgetController(BudgetService budgetService) {
+    public BudgetController(BudgetService budgetService, ReadModelCache readModelCache) {
         this.budgetService = budgetService;
+        this.readModelCache = readModelCache;
     }
 
+    // Cached BudgetResponse JSON, written as is
     @GetMapping
-    public ResponseEntity<BudgetResponse> get() {
-        return ResponseEntity.ok(budgetService.get());
+    public ResponseEntity<byte[]> get() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(readModelCache.json("budget", budgetService::get));
     }
 
     @PutMapping
@@ -0,0 +1,24 @@
+package com.expensetracker.backend.controller;
+
+import com.expensetracker.backend.dto.DashboardDtos.DashboardResponse;
+import com.expensetracker.backend.service.DashboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping
+    public ResponseEntity<DashboardResponse> get() {
+        return ResponseEntity.ok(dashboardService.get());
+    }
+}
@@ -1,12 +1,23 @@
 package com.expensetracker.backend.controller; // Package: REST controllers for HTTP endpoints
 
+import com.expensetracker.backend.dto.ExpenseDtos.ExpenseFilter; // Optional server-side filters for paged listing
+import com.expensetracker.backend.dto.ExpenseDtos.ExpensePageResponse; // DTO type for one keyset page of expenses
 import com.expensetracker.backend.dto.ExpenseDtos.ExpenseRequest; // DTO type for incoming expense payloads
 import com.expensetracker.backend.dto.ExpenseDtos.ExpenseResponse; // DTO type for outgoing expense payloads
 import com.expensetracker.backend.service.ExpenseService; // Service handling expense business logic
+import com.expensetracker.backend.dto.ImportDtos.ImportResult; // Summary of a bulk statement import
+import com.expensetracker.backend.service.ExportService; // Service streaming the full ledger export
+import com.expensetracker.backend.service.ImportService; // Service bulk-importing bank statements
+import org.springframework.http.HttpHeaders; // Standard header names
+import org.springframework.http.MediaType; // Content type constants
 import jakarta.validation.Valid; // Bean Validation annotation for request validation
 import org.springframework.http.ResponseEntity; // Response wrapper with status and body
 import org.springframework.web.bind.annotation.*; // Spring MVC annotations for REST mapping
+import org.springframework.web.multipart.MultipartFile; // Uploaded statement file
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody; // Body written directly to the response stream
 
+import java.math.BigDecimal; // Amount range filter bounds
+import java.time.Instant; // Date range filter bounds
 import java.util.List; // List type for collections
 import java.util.UUID; // UUID type for path variable id
 
@@ -15,9 +26,13 @@ import java.util.UUID; // UUID type for path variable id
 public class ExpenseController { // Controller exposing expense-related endpoints
 
     private final ExpenseService expenseService; // Dependency on service layer
+    private final ExportService exportService; // Dependency for streaming exports
+    private final ImportService importService; // Dependency for bulk statement imports
 
-    public ExpenseController(ExpenseService expenseService) { // Constructor injection for service dependency
+    public ExpenseController(ExpenseService expenseService, ExportService exportService, ImportService importService) { // Constructor injection for service dependencies
         this.expenseService = expenseService; // Assign service field
+        this.exportService = exportService; // Assign export service field
+        this.importService = importService; // Assign import service field
     }
 
     @GetMapping // HTTP GET at base path: list expenses
@@ -25,6 +40,43 @@ public class ExpenseController { // Controller exposing expense-related endpoint
         return ResponseEntity.ok(expenseService.listCurrentUser()); // 200 OK with body from service
     }
 
+    @GetMapping(params = "limit") // HTTP GET with ?limit=: cursor-paginated, filterable listing (newest first)
+    public ResponseEntity<ExpensePageResponse> page( // One keyset page plus the cursor for the next one
+            @RequestParam int limit, // Page size, 1..200
+            @RequestParam(required = false) String cursor, // Opaque cursor from the previous page's nextCursor
+            @RequestParam(required = false) Instant from, // Inclusive lower date bound (ISO-8601)
+            @RequestParam(required = false) Instant to, // Exclusive upper date bound (ISO-8601)
+            @RequestParam(required = false) String category, // Exact category match
+            @RequestParam(required = false) String paymentMethod, // Exact payment method match
+            @RequestParam(required = false) BigDecimal minAmount, // Inclusive minimum amount
+            @RequestParam(required = false) BigDecimal maxAmount, // Inclusive maximum amount
+            @RequestParam(required = false) Boolean recurringOnly // Only expenses generated from recurring templates
+    ) {
+        ExpenseFilter filter = new ExpenseFilter(from, to, category, paymentMethod, minAmount, maxAmount, recurringOnly); // Bundle filters for the service
+        return ResponseEntity.ok(expenseService.listPage(filter, cursor, limit)); // 200 OK with page body
+    }
+
+    @GetMapping("/export") // HTTP GET at /export: stream the user's whole ledger
+    public ResponseEntity<StreamingResponseBody> export( // Streamed body, heap use independent of row count
+            @RequestParam(defaultValue = "csv") String format, // csv or ndjson
+            @RequestParam(defaultValue = "false") boolean includeLendings // Also stream lendings and their payments
+    ) {
+        ExportService.Format fmt = ExportService.Format.parse(format); // Validate format up front (400 on bad value)
+        return ResponseEntity.ok() // 200 OK, body streams after headers are sent
+                .contentType(fmt.mediaType) // text/csv or application/x-ndjson
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"expenses." + fmt.extension + "\"") // Download as a file
+                .body(exportService.export(fmt, includeLendings)); // Streaming body resolved for the current user
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE) // HTTP POST at /import: bulk-import a CSV/OFX statement
+    public ResponseEntity<ImportResult> importStatement( // Per-row errors plus throughput stats
+            @RequestParam("file") MultipartFile file, // Statement file, parsed as a stream
+            @RequestParam(required = false) String format, // csv or ofx; guessed from the file name when absent
+            @RequestParam(defaultValue = "Other") String category // Category for rows that carry none (always the case for OFX)
+    ) {
+        return ResponseEntity.ok(importService.importStatement(file, format, category)); // 200 OK with import summary
+    }
+
     @PostMapping // HTTP POST at base path: add expense
     public ResponseEntity<ExpenseResponse> add(@Valid @RequestBody ExpenseRequest request) { // Validate and bind request body to DTO
         return ResponseEntity.ok(expenseService.add(request)); // 200 OK with created expense
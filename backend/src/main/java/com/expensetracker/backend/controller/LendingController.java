@@ -2,7 +2,9 @@ package com.expensetracker.backend.controller;
 
 import com.expensetracker.backend.dto.LendingDtos.*;
 import com.expensetracker.backend.service.LendingService;
+import com.expensetracker.backend.service.ReadModelCache;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,9 +16,11 @@ import java.util.UUID;
 public class LendingController {
 
     private final LendingService lendingService;
+    private final ReadModelCache readModelCache;
 
-    public LendingController(LendingService lendingService) {
+    public LendingController(LendingService lendingService, ReadModelCache readModelCache) {
         this.lendingService = lendingService;
+        this.readModelCache = readModelCache;
     }
 
     @GetMapping
@@ -24,9 +28,39 @@ public class LendingController {
         return ResponseEntity.ok(lendingService.list());
     }
 
+    // ?limit=: cursor-paginated, filterable listing (newest first); includePayments=false drops payment detail
+    @GetMapping(params = "limit")
+    public ResponseEntity<LendingPageResponse> page(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String person,
+            @RequestParam(defaultValue = "true") boolean includePayments
+    ) {
+        LendingFilter filter = new LendingFilter(type, status, person);
+        return ResponseEntity.ok(lendingService.listPage(filter, cursor, limit, includePayments));
+    }
+
+    // includePersons=false skips the autocomplete name list; body is the cached LendingSummaryResponse JSON
     @GetMapping("/summary")
-    public ResponseEntity<LendingSummaryResponse> summary() {
-        return ResponseEntity.ok(lendingService.summary());
+    public ResponseEntity<byte[]> summary(
+            @RequestParam(defaultValue = "true") boolean includePersons
+    ) {
+        String endpoint = includePersons ? "lending.summary" : "lending.summary.totals";
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(readModelCache.json(endpoint, () -> lendingService.summary(includePersons)));
+    }
+
+    // Paged autocomplete: pass the last name of a page as after= to get the next one
+    @GetMapping("/persons")
+    public ResponseEntity<List<String>> persons(
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ResponseEntity.ok(lendingService.persons(prefix, after, limit));
     }
 
     @PostMapping
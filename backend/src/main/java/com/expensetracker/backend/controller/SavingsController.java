@@ -1,7 +1,8 @@
 package com.expensetracker.backend.controller;
 
-import com.expensetracker.backend.dto.SavingsDtos.SavingsResponse;
+import com.expensetracker.backend.service.ReadModelCache;
 import com.expensetracker.backend.service.SavingsService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -12,13 +13,18 @@ import org.springframework.web.bind.annotation.RestController;
 public class SavingsController {
 
     private final SavingsService savingsService;
+    private final ReadModelCache readModelCache;
 
-    public SavingsController(SavingsService savingsService) {
+    public SavingsController(SavingsService savingsService, ReadModelCache readModelCache) {
         this.savingsService = savingsService;
+        this.readModelCache = readModelCache;
     }
 
+    // Cached SavingsResponse JSON, written as is
     @GetMapping
-    public ResponseEntity<SavingsResponse> get() {
-        return ResponseEntity.ok(savingsService.get());
+    public ResponseEntity<byte[]> get() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(readModelCache.json("savings", savingsService::get));
     }
 }
\ No newline at end of file
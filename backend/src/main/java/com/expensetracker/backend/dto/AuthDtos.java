@@ -1,5 +1,7 @@
 package com.expensetracker.backend.dto;
 
+import com.expensetracker.backend.dto.DashboardDtos.BootstrapResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -34,17 +36,20 @@ public class AuthDtos {
 
     // Response after login OR register (register still returns token
     // but frontend chooses to ignore it and redirect to login)
+    // bootstrap is only present on login?bootstrap=true
     public record AuthResponse(
             String token,
             String email,
             String firstName,
-            String lastName
+            String lastName,
+            @JsonInclude(JsonInclude.Include.NON_NULL) BootstrapResponse bootstrap
     ) {}
 
-    // For GET /api/auth/me — current user info
+    // For GET /api/auth/me — current user info; bootstrap only with ?bootstrap=true
     public record MeResponse(
             String email,
             String firstName,
-            String lastName
+            String lastName,
+            @JsonInclude(JsonInclude.Include.NON_NULL) BootstrapResponse bootstrap
     ) {}
 }
\ No newline at end of file
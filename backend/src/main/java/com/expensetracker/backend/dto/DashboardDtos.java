@@ -0,0 +1,36 @@
+package com.expensetracker.backend.dto;
+
+import com.expensetracker.backend.dto.ExpenseDtos.ExpensePageResponse;
+import com.expensetracker.backend.dto.PreferenceDtos.PreferenceResponse;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.util.List;
+
+public class DashboardDtos {
+
+    /**
+     * budget, savings and lendingSummary are the exact JSON of GET /api/budget,
+     * /api/savings and /api/lending/summary?includePersons=false, taken from the
+     * read-model cache. A section that failed or timed out is null and listed
+     * in unavailable.
+     */
+    public record DashboardResponse(
+            @JsonRawValue String budget,
+            @JsonRawValue String savings,
+            @JsonRawValue String lendingSummary,
+            ExpensePageResponse recentExpenses,  // first page, newest first; nextCursor continues on /api/expenses
+            List<String> unavailable
+    ) {}
+
+    /**
+     * Returned alongside the token or user info by /api/auth/login and /api/auth/me
+     * with ?bootstrap=true. budget is the exact JSON of GET /api/budget; sections
+     * are left null and listed in unavailable the same way as on the dashboard.
+     */
+    public record BootstrapResponse(
+            PreferenceResponse preferences,
+            @JsonRawValue String budget,
+            ExpensePageResponse recentExpenses,
+            List<String> unavailable
+    ) {}
+}
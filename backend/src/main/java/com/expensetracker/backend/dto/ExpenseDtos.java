@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Positive;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 public class ExpenseDtos {
@@ -30,4 +31,21 @@ public class ExpenseDtos {
             UUID recurringId,       // NEW — if auto-generated
             boolean isFromRecurring // NEW — computed
     ) {}
-}
\ No newline at end of file
+
+    // Query for GET /api/expenses?limit=... — every field is optional except limit
+    public record ExpenseFilter(
+            Instant from,           // inclusive
+            Instant to,             // exclusive
+            String category,
+            String paymentMethod,
+            BigDecimal minAmount,
+            BigDecimal maxAmount,
+            Boolean recurringOnly
+    ) {}
+
+    public record ExpensePageResponse(
+            List<ExpenseResponse> items,
+            String nextCursor,      // pass back as ?cursor= for the next page, null on the last page
+            boolean hasMore
+    ) {}
+}
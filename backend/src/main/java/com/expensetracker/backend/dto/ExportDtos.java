@@ -0,0 +1,53 @@
+package com.expensetracker.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Flat rows streamed by GET /api/expenses/export.
+ * Built by JPQL constructor expressions, so they are never managed
+ * entities and the persistence context stays empty while streaming.
+ * In NDJSON each line carries a "type" discriminator.
+ */
+public class ExportDtos {
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+    @JsonTypeName("expense")
+    public record ExpenseExportRow(
+            UUID id,
+            Instant date,
+            String title,
+            BigDecimal amount,
+            String category,
+            String paymentMethod,
+            String notes,
+            UUID recurringId
+    ) {}
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+    @JsonTypeName("lending")
+    public record LendingExportRow(
+            UUID id,
+            Instant date,
+            String lendingType,     // LENT or BORROWED
+            String personName,
+            BigDecimal originalAmount,
+            BigDecimal returnedAmount,
+            String status,
+            String notes
+    ) {}
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+    @JsonTypeName("payment")
+    public record PaymentExportRow(
+            UUID id,
+            UUID lendingId,
+            Instant date,
+            BigDecimal amount,
+            String notes
+    ) {}
+}
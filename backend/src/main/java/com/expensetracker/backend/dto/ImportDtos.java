@@ -0,0 +1,23 @@
+package com.expensetracker.backend.dto;
+
+import java.util.List;
+
+public class ImportDtos {
+
+    public record ImportResult(
+            int totalRows,          // data rows read from the file
+            int imported,
+            int duplicates,         // matched an expense stored before the import; repeats within the file are kept
+            int skipped,            // e.g. OFX credits, which are not expenses
+            int failed,             // rows with validation errors
+            List<RowError> errors,  // capped; see errorsTruncated
+            boolean errorsTruncated,
+            long elapsedMs,
+            double rowsPerSecond
+    ) {}
+
+    public record RowError(
+            long row,               // 1-based line (CSV) or transaction number (OFX)
+            String message
+    ) {}
+}
@@ -55,7 +55,19 @@ public class LendingDtos {
             Instant date,
             Instant createdAt,
             Instant updatedAt,
-            List<PaymentResponse> payments
+            List<PaymentResponse> payments   // null when the caller asked to omit payments
+    ) {}
+
+    public record LendingFilter(
+            String type,
+            String status,
+            String personName
+    ) {}
+
+    public record LendingPageResponse(
+            List<LendingResponse> items,
+            String nextCursor,      // pass back as ?cursor= for the next page, null on the last page
+            boolean hasMore
     ) {}
 
     public record PaymentResponse(
@@ -76,4 +88,15 @@ public class LendingDtos {
             Integer activeBorrowedCount,
             List<String> knownPersons    // For autocomplete
     ) {}
-}
\ No newline at end of file
+
+    // ── Query rows ────────────────────────────────────
+
+    // One (type, status) group of a user's lendings
+    public record LendingTotalsRow(
+            String type,
+            String status,
+            Long count,
+            BigDecimal originalAmount,
+            BigDecimal remainingAmount
+    ) {}
+}
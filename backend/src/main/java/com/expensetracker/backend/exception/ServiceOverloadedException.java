@@ -0,0 +1,6 @@
+package com.expensetracker.backend.exception;
+
+/** A bounded resource is saturated; the request may succeed if retried shortly (503). */
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message) { super(message); }
+}
@@ -9,6 +9,7 @@ import lombok.Setter;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.UUID;
 
 @Getter
@@ -17,7 +18,23 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "expenses")
+@Table(
+        name = "expenses",
+        indexes = {
+                // Keyset listing (date DESC, id DESC) and month-window sums
+                @Index(name = "idx_expenses_user_date", columnList = "user_id, date, id"),
+                // Filtered listings keep the keyset order inside each filter value
+                @Index(name = "idx_expenses_user_category_date", columnList = "user_id, category, date, id"),
+                @Index(name = "idx_expenses_user_payment_date", columnList = "user_id, payment_method, date, id")
+                // idx_expenses_user_recurring_date (user_id, date, id) WHERE recurring_id IS NOT NULL
+                // is partial, which JPA cannot declare; it is created only by docs/v4-migration.sql
+        },
+        // A scheduled occurrence of a template is generated at most once
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_expenses_recurring_occurrence",
+                columnNames = {"recurring_id", "occurrence_date"}
+        )
+)
 public class Expense {
 
     @Id
@@ -46,6 +63,10 @@ public class Expense {
     @Column(name = "recurring_id")
     private UUID recurringId;
 
+    // Scheduled occurrence (UTC day) this row was generated for; null for manual "generate now"
+    @Column(name = "occurrence_date")
+    private LocalDate occurrenceDate;
+
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
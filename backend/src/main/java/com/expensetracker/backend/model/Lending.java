@@ -19,7 +19,14 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "lending")
+@Table(
+        name = "lending",
+        indexes = {
+                @Index(name = "idx_lending_user_date", columnList = "user_id, date, id"),
+                @Index(name = "idx_lending_user_type_status", columnList = "user_id, type, status"),
+                @Index(name = "idx_lending_user_person", columnList = "user_id, person_name")
+        }
+)
 public class Lending {
 
     @Id
@@ -61,6 +68,11 @@ public class Lending {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    // Optimistic lock for entity updates; recordPayment's bulk UPDATE bumps it too
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "lending", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @Builder.Default
     private List<LendingPayment> payments = new ArrayList<>();
@@ -17,7 +17,10 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "lending_payments")
+@Table(
+        name = "lending_payments",
+        indexes = @Index(name = "idx_lending_payments_lending", columnList = "lending_id, date")
+)
 public class LendingPayment {
 
     @Id
@@ -0,0 +1,64 @@
+package com.expensetracker.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Running total of a user's expenses for one UTC month, split by
+ * category and payment method. Maintained incrementally on every
+ * expense write; rebuilt from `expenses` by SpendLedgerRebuildRunner.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "monthly_spend",
+        uniqueConstraints = @UniqueConstraint(columnNames = {
+                "user_id", "spend_year", "spend_month", "category", "payment_method"
+        })
+)
+public class MonthlySpend {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // Same naming as MonthlySnapshot to avoid reserved words
+    @Column(name = "spend_year", nullable = false)
+    private Integer year;
+
+    @Column(name = "spend_month", nullable = false)
+    private Integer month;
+
+    @Column(nullable = false, length = 255)
+    private String category;
+
+    @Column(name = "payment_method", nullable = false, length = 50)
+    private String paymentMethod;
+
+    @Column(precision = 19, scale = 4, nullable = false)
+    @Builder.Default
+    private BigDecimal amount = BigDecimal.ZERO;
+
+    @Column(name = "expense_count", nullable = false)
+    @Builder.Default
+    private Integer expenseCount = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
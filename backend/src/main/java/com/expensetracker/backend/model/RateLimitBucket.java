@@ -0,0 +1,35 @@
+package com.expensetracker.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Shared rate-limit bucket state (ratelimit.store=jdbc). Rows are read and
+ * written by Bucket4j's proxy manager, never through the entity; it is
+ * mapped so the schema is managed alongside the rest.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "rate_limit_buckets",
+        indexes = @Index(name = "idx_rate_limit_buckets_updated", columnList = "updated_at")
+)
+public class RateLimitBucket {
+
+    @Id
+    @Column(length = 255)
+    private String id;
+
+    // Serialized Bucket4j state; null until the first consume
+    @Column(length = 4096)
+    private byte[] state;
+
+    // Stamped by a trigger on every write (see docs/v4-migration.sql); drives the idle purge
+    @Column(name = "updated_at", insertable = false, updatable = false,
+            columnDefinition = "TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL")
+    private Instant updatedAt;
+}
@@ -21,7 +21,11 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "recurring_expenses")
+@Table(
+        name = "recurring_expenses",
+        // Scheduler pages due templates by (next_due_at, id); partial (WHERE active) in docs/v4-migration.sql
+        indexes = @Index(name = "idx_recurring_due", columnList = "next_due_at, id")
+)
 public class RecurringExpense {
 
     @Id
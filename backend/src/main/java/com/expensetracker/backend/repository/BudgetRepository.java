@@ -6,5 +6,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.Optional;
 
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
-    Optional<Budget> findByUserId(Long userId);
+
+    // The id is the user id: a primary-key load, so it is answered from the second-level cache
+    default Optional<Budget> findByUserId(Long userId) {
+        return findById(userId);
+    }
 }
\ No newline at end of file
@@ -1,13 +1,45 @@
 package com.expensetracker.backend.repository; // Package for data access repositories
 
+import com.expensetracker.backend.dto.ExportDtos.ExpenseExportRow; // Flat export row built by constructor expression
 import com.expensetracker.backend.model.Expense; // Import Expense entity managed by this repository
+import jakarta.persistence.QueryHint; // JPA query hint annotation
+import org.hibernate.jpa.HibernateHints; // Hibernate-specific hint names (fetch size, read-only)
 import org.springframework.data.jpa.repository.JpaRepository; // Base JPA repository providing CRUD and pagination
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor; // Dynamic filtered queries via ExpenseSpecifications
 import org.springframework.data.jpa.repository.Query; // Annotation to define custom JPQL queries
+import org.springframework.data.jpa.repository.QueryHints; // Attach hints to a repository query
 
+import java.math.BigDecimal; // Monetary sum type for aggregate queries
+import java.time.Instant; // Instant type for date-range bounds
+import java.time.LocalDate; // Scheduled occurrence day of a generated expense
+import java.util.Collection; // Batch of template ids
 import java.util.List; // List type for returning multiple results
 import java.util.UUID; // UUID as primary key type for Expense
+import java.util.stream.Stream; // Forward-only result stream backed by a JDBC cursor
 
-public interface ExpenseRepository extends JpaRepository<Expense, UUID> { // Repository interface for Expense with UUID id
+public interface ExpenseRepository extends JpaRepository<Expense, UUID>, JpaSpecificationExecutor<Expense> { // Repository interface for Expense with UUID id, plus Specification queries
     @Query("select e from Expense e where e.user.id = :userId order by e.date desc") // JPQL query: fetch expenses for a user, newest first
     List<Expense> findByUserId(Long userId); // Method signature binds :userId and returns list of expenses
+
+    @Query("select coalesce(sum(e.amount), 0) from Expense e where e.user.id = :userId and e.date >= :from and e.date < :to") // JPQL aggregate: total spent in [from, to), served by idx_expenses_user_date
+    BigDecimal sumAmountByUserIdAndDateRange(Long userId, Instant from, Instant to); // Returns zero when no expense falls in the range
+
+    @Query("select new com.expensetracker.backend.repository.ExpenseRepository$LedgerRow(e.date, e.category, e.paymentMethod, e.amount) from Expense e where e.user.id = :userId") // JPQL projection: only the columns the spend ledger is keyed on
+    List<LedgerRow> findLedgerRowsByUserId(Long userId); // Used by the ledger rebuild, avoids hydrating full entities
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")) // Fetch rows from the cursor in chunks instead of all at once
+    @Query("select new com.expensetracker.backend.dto.ExportDtos$ExpenseExportRow(e.id, e.date, e.title, e.amount, e.category, e.paymentMethod, e.notes, e.recurringId) from Expense e where e.user.id = :userId order by e.date desc, e.id desc") // JPQL projection: export columns only, newest first
+    Stream<ExpenseExportRow> streamExportRowsByUserId(Long userId); // Must be consumed inside a transaction and closed by the caller
+
+    @Query("select new com.expensetracker.backend.repository.ExpenseRepository$DedupRow(e.date, e.amount, e.title) from Expense e where e.user.id = :userId and e.date >= :from and e.date <= :to") // JPQL projection: only the columns import de-duplication compares
+    List<DedupRow> findDedupRowsByUserIdAndDateRange(Long userId, Instant from, Instant to); // Existing rows overlapping an import chunk's date span
+
+    @Query("select new com.expensetracker.backend.repository.ExpenseRepository$OccurrenceKey(e.recurringId, e.occurrenceDate) from Expense e where e.recurringId in :recurringIds and e.occurrenceDate >= :from and e.occurrenceDate <= :to") // JPQL projection: occurrences already generated for these templates
+    List<OccurrenceKey> findOccurrenceKeys(Collection<UUID> recurringIds, LocalDate from, LocalDate to); // Lets the scheduler skip occurrences that exist
+
+    record OccurrenceKey(UUID recurringId, LocalDate occurrenceDate) {} // (template, scheduled day) — unique among generated expenses
+
+    record DedupRow(Instant date, BigDecimal amount, String title) {} // Lightweight projection row for import de-duplication
+
+    record LedgerRow(Instant date, String category, String paymentMethod, BigDecimal amount) {} // Lightweight projection row for ledger rebuilds
 }
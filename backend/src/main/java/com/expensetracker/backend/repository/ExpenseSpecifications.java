@@ -0,0 +1,72 @@
+package com.expensetracker.backend.repository;
+
+import com.expensetracker.backend.model.Expense;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Composable filters for expense listing queries.
+ * Each factory returns null when its argument is absent, which
+ * Specification.where/and treat as "no restriction".
+ */
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {}
+
+    public static Specification<Expense> ownedBy(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Expense> dateFrom(Instant from) {
+        if (from == null) return null;
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    public static Specification<Expense> dateBefore(Instant to) {
+        if (to == null) return null;
+        return (root, query, cb) -> cb.lessThan(root.get("date"), to);
+    }
+
+    public static Specification<Expense> category(String category) {
+        if (category == null || category.isBlank()) return null;
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Expense> paymentMethod(String paymentMethod) {
+        if (paymentMethod == null || paymentMethod.isBlank()) return null;
+        return (root, query, cb) -> cb.equal(root.get("paymentMethod"), paymentMethod);
+    }
+
+    public static Specification<Expense> amountAtLeast(BigDecimal min) {
+        if (min == null) return null;
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), min);
+    }
+
+    public static Specification<Expense> amountAtMost(BigDecimal max) {
+        if (max == null) return null;
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), max);
+    }
+
+    public static Specification<Expense> recurringOnly(Boolean recurringOnly) {
+        if (!Boolean.TRUE.equals(recurringOnly)) return null;
+        return (root, query, cb) -> cb.isNotNull(root.get("recurringId"));
+    }
+
+    /**
+     * Keyset predicate for (date DESC, id DESC) ordering: rows strictly
+     * after the cursor row. Stable under concurrent inserts, unlike OFFSET.
+     */
+    public static Specification<Expense> after(Instant cursorDate, UUID cursorId) {
+        if (cursorDate == null) return null;
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("date"), cursorDate),
+                cb.and(
+                        cb.equal(root.get("date"), cursorDate),
+                        cb.lessThan(root.<UUID>get("id"), cursorId)
+                )
+        );
+    }
+}
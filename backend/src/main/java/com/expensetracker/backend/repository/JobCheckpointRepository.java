@@ -0,0 +1,7 @@
+package com.expensetracker.backend.repository;
+
+import com.expensetracker.backend.model.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
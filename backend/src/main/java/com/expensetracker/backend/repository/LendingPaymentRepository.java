@@ -2,8 +2,15 @@ package com.expensetracker.backend.repository;
 
 import com.expensetracker.backend.model.LendingPayment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface LendingPaymentRepository extends JpaRepository<LendingPayment, UUID> {
-}
\ No newline at end of file
+
+    // Payments of a page of lendings in one round trip, instead of one lazy load per lending
+    @Query("SELECT p FROM LendingPayment p WHERE p.lending.id IN :lendingIds ORDER BY p.date, p.id")
+    List<LendingPayment> findByLendingIdIn(Collection<UUID> lendingIds);
+}
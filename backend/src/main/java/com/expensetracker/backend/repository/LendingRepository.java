@@ -1,17 +1,71 @@
 package com.expensetracker.backend.repository;
 
+import com.expensetracker.backend.dto.ExportDtos.LendingExportRow;
+import com.expensetracker.backend.dto.ExportDtos.PaymentExportRow;
+import com.expensetracker.backend.dto.LendingDtos.LendingTotalsRow;
 import com.expensetracker.backend.model.Lending;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface LendingRepository extends JpaRepository<Lending, UUID> {
+public interface LendingRepository extends JpaRepository<Lending, UUID>, JpaSpecificationExecutor<Lending> {
 
     @Query("SELECT l FROM Lending l WHERE l.user.id = :userId ORDER BY l.date DESC")
     List<Lending> findAllByUserId(Long userId);
 
     @Query("SELECT DISTINCT l.personName FROM Lending l WHERE l.user.id = :userId ORDER BY l.personName")
-    List<String> findDistinctPersonNamesByUserId(Long userId);
-}
\ No newline at end of file
+    List<String> findDistinctPersonNamesByUserId(Long userId, Limit limit);
+
+    // Name-ordered page of distinct persons starting with prefix, after the last name of the previous page
+    @Query("SELECT DISTINCT l.personName FROM Lending l WHERE l.user.id = :userId " +
+            "AND LOWER(l.personName) LIKE :prefix ESCAPE '\\' AND l.personName > :after " +
+            "ORDER BY l.personName")
+    List<String> findDistinctPersonNamesPage(Long userId, String prefix, String after, Limit limit);
+
+    // At most six rows (2 types x 3 statuses), whatever the history size
+    @Query("SELECT new com.expensetracker.backend.dto.LendingDtos$LendingTotalsRow(" +
+            "l.type, l.status, COUNT(l), SUM(l.originalAmount), SUM(l.originalAmount - l.returnedAmount)) " +
+            "FROM Lending l WHERE l.user.id = :userId GROUP BY l.type, l.status")
+    List<LendingTotalsRow> sumByTypeAndStatus(Long userId);
+
+    // Remaining (not yet returned) amount of unsettled LENT entries dated in [from, to)
+    @Query("SELECT COALESCE(SUM(l.originalAmount - l.returnedAmount), 0) FROM Lending l " +
+            "WHERE l.user.id = :userId AND l.type = 'LENT' AND l.status <> 'SETTLED' " +
+            "AND l.date >= :from AND l.date < :to")
+    BigDecimal sumOutstandingLentByUserIdAndDateRange(Long userId, Instant from, Instant to);
+
+    // Adds a payment in one statement: the balance check and the write cannot interleave with another payment.
+    // Returns 0 when the lending is missing, not the user's, or the amount exceeds what remains.
+    @Modifying
+    @Query("UPDATE Lending l SET l.returnedAmount = l.returnedAmount + :amount, " +
+            "l.status = CASE WHEN l.returnedAmount + :amount >= l.originalAmount THEN 'SETTLED' ELSE 'PARTIAL' END, " +
+            "l.updatedAt = :now, l.version = l.version + 1 " +
+            "WHERE l.id = :id AND l.user.id = :userId AND l.returnedAmount + :amount <= l.originalAmount")
+    int applyPayment(UUID id, Long userId, BigDecimal amount, Instant now);
+
+    // ── Export streams (consume inside a transaction, then close) ──
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.expensetracker.backend.dto.ExportDtos$LendingExportRow(" +
+            "l.id, l.date, l.type, l.personName, l.originalAmount, l.returnedAmount, l.status, l.notes) " +
+            "FROM Lending l WHERE l.user.id = :userId ORDER BY l.date DESC, l.id DESC")
+    Stream<LendingExportRow> streamExportRowsByUserId(Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.expensetracker.backend.dto.ExportDtos$PaymentExportRow(" +
+            "p.id, l.id, p.date, p.amount, p.notes) " +
+            "FROM LendingPayment p JOIN p.lending l WHERE l.user.id = :userId " +
+            "ORDER BY l.date DESC, l.id DESC, p.date")
+    Stream<PaymentExportRow> streamPaymentExportRowsByUserId(Long userId);
+}
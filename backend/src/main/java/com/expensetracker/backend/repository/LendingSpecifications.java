@@ -0,0 +1,48 @@
+package com.expensetracker.backend.repository;
+
+import com.expensetracker.backend.model.Lending;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Composable filters for lending listing queries.
+ * Each factory returns null when its argument is absent, which
+ * Specification.allOf treats as "no restriction".
+ */
+public final class LendingSpecifications {
+
+    private LendingSpecifications() {}
+
+    public static Specification<Lending> ownedBy(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Lending> type(String type) {
+        if (type == null || type.isBlank()) return null;
+        return (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+
+    public static Specification<Lending> status(String status) {
+        if (status == null || status.isBlank()) return null;
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Lending> person(String personName) {
+        if (personName == null || personName.isBlank()) return null;
+        return (root, query, cb) -> cb.equal(root.get("personName"), personName);
+    }
+
+    /** Keyset predicate for (date DESC, id DESC) ordering, as in ExpenseSpecifications.after. */
+    public static Specification<Lending> after(Instant cursorDate, UUID cursorId) {
+        if (cursorDate == null) return null;
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("date"), cursorDate),
+                cb.and(
+                        cb.equal(root.get("date"), cursorDate),
+                        cb.lessThan(root.<UUID>get("id"), cursorId)
+                )
+        );
+    }
+}
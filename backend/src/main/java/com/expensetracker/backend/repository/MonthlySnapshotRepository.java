@@ -4,6 +4,8 @@ import com.expensetracker.backend.model.MonthlySnapshot;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,4 +16,21 @@ public interface MonthlySnapshotRepository extends JpaRepository<MonthlySnapshot
 
     @Query("SELECT s FROM MonthlySnapshot s WHERE s.user.id = :userId ORDER BY s.year DESC, s.month DESC")
     List<MonthlySnapshot> findAllByUserIdOrderByDateDesc(Long userId);
+
+    /**
+     * Users in the batch that still need a snapshot for the month: budget
+     * enabled and non-zero, no snapshot yet. Month spend comes from the
+     * monthly_spend rollup in the same grouped query.
+     */
+    @Query("SELECT new com.expensetracker.backend.repository.MonthlySnapshotRepository$PendingSnapshot(" +
+            "b.userId, b.monthlyAmount, COALESCE(SUM(m.amount), 0)) " +
+            "FROM Budget b LEFT JOIN MonthlySpend m " +
+            "ON m.user.id = b.userId AND m.year = :year AND m.month = :month " +
+            "WHERE b.userId IN :userIds AND b.enabled = true AND b.monthlyAmount <> 0 " +
+            "AND NOT EXISTS (SELECT 1 FROM MonthlySnapshot s " +
+            "WHERE s.user.id = b.userId AND s.year = :year AND s.month = :month) " +
+            "GROUP BY b.userId, b.monthlyAmount")
+    List<PendingSnapshot> findPending(Collection<Long> userIds, Integer year, Integer month);
+
+    record PendingSnapshot(Long userId, BigDecimal budgetAmount, BigDecimal spent) {}
 }
\ No newline at end of file
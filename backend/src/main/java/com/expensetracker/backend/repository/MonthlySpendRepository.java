@@ -0,0 +1,29 @@
+package com.expensetracker.backend.repository;
+
+import com.expensetracker.backend.model.MonthlySpend;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface MonthlySpendRepository extends JpaRepository<MonthlySpend, UUID> {
+
+    @Modifying
+    @Query("UPDATE MonthlySpend m SET m.amount = m.amount + :delta, " +
+            "m.expenseCount = m.expenseCount + :countDelta, m.updatedAt = :now " +
+            "WHERE m.user.id = :userId AND m.year = :year AND m.month = :month " +
+            "AND m.category = :category AND m.paymentMethod = :paymentMethod")
+    int applyDelta(Long userId, Integer year, Integer month, String category, String paymentMethod,
+                   BigDecimal delta, Integer countDelta, Instant now);
+
+    @Query("SELECT COALESCE(SUM(m.amount), 0) FROM MonthlySpend m " +
+            "WHERE m.user.id = :userId AND m.year = :year AND m.month = :month")
+    BigDecimal sumByUserIdAndYearAndMonth(Long userId, Integer year, Integer month);
+
+    @Query("SELECT m FROM MonthlySpend m WHERE m.user.id = :userId")
+    List<MonthlySpend> findAllByUserId(Long userId);
+}
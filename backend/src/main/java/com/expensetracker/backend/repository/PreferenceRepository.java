@@ -6,5 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository; // Spring Data JPA
 import java.util.Optional; // Optional type for possibly absent values
 
 public interface PreferenceRepository extends JpaRepository<Preference, Long> { // Repository for Preference with primary key Long
-    Optional<Preference> findByUserId(Long userId); // Derived query: lookup preferences by associated user's id
+    default Optional<Preference> findByUserId(Long userId) { // Lookup preferences by associated user's id
+        return findById(userId); // The id is the user id (@MapsId): a primary-key load, served by the second-level cache
+    }
 }
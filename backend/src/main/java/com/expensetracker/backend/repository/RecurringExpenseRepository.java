@@ -1,10 +1,13 @@
 package com.expensetracker.backend.repository;
 
 import com.expensetracker.backend.model.RecurringExpense;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,4 +18,37 @@ public interface RecurringExpenseRepository extends JpaRepository<RecurringExpen
 
     @Query("SELECT r FROM RecurringExpense r WHERE r.active = true AND r.nextDueAt <= :now")
     List<RecurringExpense> findDueForGeneration(Instant now);
+
+    /**
+     * Next page of due templates in one partition (MOD(user_id, partitions)),
+     * keyed on (nextDueAt, id). Templates already generated in this run
+     * (lastGeneratedAt = now) are excluded so a partially caught-up one
+     * is not picked up again. Columns only — no entity or user loading.
+     */
+    @Query("SELECT new com.expensetracker.backend.repository.RecurringExpenseRepository$DueTemplate(" +
+            "r.id, r.user.id, r.title, r.amount, r.category, r.paymentMethod, r.notes, " +
+            "r.frequency, r.dayOfMonth, r.nextDueAt) " +
+            "FROM RecurringExpense r " +
+            "WHERE r.active = true AND r.nextDueAt <= :now " +
+            "AND (r.lastGeneratedAt IS NULL OR r.lastGeneratedAt < :now) " +
+            "AND MOD(r.user.id, :partitions) = :partition " +
+            "AND (r.nextDueAt > :afterDueAt OR (r.nextDueAt = :afterDueAt AND r.id > :afterId)) " +
+            "ORDER BY r.nextDueAt, r.id")
+    List<DueTemplate> findDueChunk(Instant now, Integer partitions, Integer partition,
+                                   Instant afterDueAt, UUID afterId, Limit limit);
+
+    /** The given templates as they are now, dropping any no longer due for this run. */
+    @Query("SELECT new com.expensetracker.backend.repository.RecurringExpenseRepository$DueTemplate(" +
+            "r.id, r.user.id, r.title, r.amount, r.category, r.paymentMethod, r.notes, " +
+            "r.frequency, r.dayOfMonth, r.nextDueAt) " +
+            "FROM RecurringExpense r " +
+            "WHERE r.id IN :ids AND r.active = true AND r.nextDueAt <= :now " +
+            "AND (r.lastGeneratedAt IS NULL OR r.lastGeneratedAt < :now) " +
+            "ORDER BY r.nextDueAt, r.id")
+    List<DueTemplate> findDueByIds(Collection<UUID> ids, Instant now);
+
+    record DueTemplate(
+            UUID id, Long userId, String title, BigDecimal amount, String category,
+            String paymentMethod, String notes, String frequency, Integer dayOfMonth, Instant nextDueAt
+    ) {}
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.expensetracker.backend.repository;
+
+import com.expensetracker.backend.model.User;
+
+import java.util.Optional;
+
+/** Email lookups through Hibernate's natural-id API, so they hit the second-level cache. */
+public interface UserNaturalIdRepository {
+
+    Optional<User> findByEmail(String email);
+}
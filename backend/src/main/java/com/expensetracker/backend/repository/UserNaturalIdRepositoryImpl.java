@@ -0,0 +1,29 @@
+package com.expensetracker.backend.repository;
+
+import com.expensetracker.backend.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * A derived findByEmail is a JPQL query, which the entity cache never
+ * answers. Resolving the natural id instead goes email -> id through the
+ * users-by-email region and id -> row through the users region, and only
+ * falls back to SQL on a miss. Unknown emails are not cached.
+ */
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email);
+    }
+}
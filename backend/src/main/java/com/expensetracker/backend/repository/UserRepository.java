@@ -1,10 +1,17 @@
 package com.expensetracker.backend.repository; // Package: repository layer for data access interfaces
 
 import com.expensetracker.backend.model.User; // Import the User entity managed by this repository
+import org.springframework.data.domain.Limit; // Row cap for id paging
 import org.springframework.data.jpa.repository.JpaRepository; // Spring Data JPA base repository providing CRUD operations
+import org.springframework.data.jpa.repository.Query; // Annotation to define custom JPQL queries
 
-import java.util.Optional; // Optional wrapper for nullable results
+import java.util.List; // List type for returning multiple results
 
-public interface UserRepository extends JpaRepository<User, Long> { // Interface: JPA repository for User with primary key type Long
-    Optional<User> findByEmail(String email); // Derived query method: finds a user by email, returns Optional
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository { // Interface: JPA repository for User with primary key type Long; findByEmail comes from the natural-id fragment
+
+    @Query("select u.id from User u order by u.id") // JPQL query: ids only, no entity hydration
+    List<Long> findAllIds(); // Used by maintenance jobs that iterate every user
+
+    @Query("select u.id from User u where u.id > :afterId and mod(u.id, :partitions) = :partition order by u.id") // JPQL query: next page of ids in one partition after a keyset position
+    List<Long> findIdsAfter(Long afterId, Integer partitions, Integer partition, Limit limit); // Batch jobs page through users without loading entities
 }
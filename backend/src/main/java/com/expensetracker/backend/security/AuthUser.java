@@ -0,0 +1,56 @@
+package com.expensetracker.backend.security;
+
+import com.expensetracker.backend.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated principal. Carries the user id so request handling can
+ * reference the User row without looking it up by email again.
+ */
+public class AuthUser implements UserDetails {
+
+    private static final List<GrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("USER"));
+
+    private final Long id;
+    private final String email;
+    private final String password;
+
+    public AuthUser(Long id, String email, String password) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+    }
+
+    public static AuthUser from(User user) {
+        return new AuthUser(user.getId(), user.getEmail(), user.getPassword());
+    }
+
+    /** Copy safe to keep in a long-lived cache: no password hash. */
+    public AuthUser withoutPassword() {
+        return new AuthUser(id, email, null);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return AUTHORITIES;
+    }
+}
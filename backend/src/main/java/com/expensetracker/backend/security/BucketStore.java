@@ -0,0 +1,18 @@
+package com.expensetracker.backend.security;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+
+import java.util.function.Supplier;
+
+/**
+ * Where rate-limit buckets live. The local store keeps them in a bounded
+ * in-process cache (limits are per replica); the JDBC store keeps them in
+ * the database so a limit holds across replicas.
+ * Selected with ratelimit.store=local|jdbc.
+ */
+public interface BucketStore {
+
+    /** The bucket for this key, created from the configuration on first use. */
+    Bucket bucket(String key, Supplier<BucketConfiguration> configuration);
+}
@@ -0,0 +1,106 @@
+package com.expensetracker.backend.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the client address behind our reverse proxies.
+ *
+ * X-Forwarded-For is only believed when the direct peer is a trusted
+ * proxy. The header is then walked right to left, skipping further
+ * trusted hops, and the first untrusted address is the client — so a
+ * client cannot pick its own rate-limit key by sending a fake header.
+ */
+@Component
+public class ClientIpResolver {
+
+    // Loopback and private ranges, where our load balancer and proxies live
+    static final String DEFAULT_TRUSTED = "127.0.0.0/8,::1,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16";
+
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+    private static final Pattern IPV6 = Pattern.compile("[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+
+    private final List<Cidr> trustedProxies;
+
+    public ClientIpResolver(@Value("${ratelimit.trusted-proxies:" + DEFAULT_TRUSTED + "}") String trustedProxies) {
+        this.trustedProxies = Arrays.stream(trustedProxies.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(Cidr::parse)
+                .toList();
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String peer = request.getRemoteAddr();
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded == null || forwarded.isBlank() || !isTrusted(peer)) {
+            return peer;
+        }
+
+        List<String> hops = new ArrayList<>(Arrays.asList(forwarded.split(",")));
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            String hop = hops.get(i).trim();
+            if (hop.isEmpty()) continue;
+            if (!isTrusted(hop)) {
+                return hop;
+            }
+        }
+        // Every hop is one of ours: the leftmost is the original client
+        String first = hops.get(0).trim();
+        return first.isEmpty() ? peer : first;
+    }
+
+    private boolean isTrusted(String address) {
+        byte[] bytes = literalBytes(address);
+        if (bytes == null) return false;
+        for (Cidr cidr : trustedProxies) {
+            if (cidr.contains(bytes)) return true;
+        }
+        return false;
+    }
+
+    // Parses IP literals only; never triggers a DNS lookup
+    private static byte[] literalBytes(String address) {
+        if (!IPV4.matcher(address).matches() && !IPV6.matcher(address).matches()) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(address).getAddress();
+        } catch (UnknownHostException | SecurityException e) {
+            return null;
+        }
+    }
+
+    private record Cidr(byte[] network, int prefix) {
+
+        static Cidr parse(String spec) {
+            String[] parts = spec.split("/");
+            byte[] network = literalBytes(parts[0]);
+            if (network == null) {
+                throw new IllegalArgumentException("Invalid trusted proxy: " + spec);
+            }
+            int prefix = parts.length > 1 ? Integer.parseInt(parts[1]) : network.length * 8;
+            return new Cidr(network, prefix);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) return false;
+            int full = prefix / 8;
+            for (int i = 0; i < full; i++) {
+                if (address[i] != network[i]) return false;
+            }
+            int rest = prefix % 8;
+            if (rest == 0) return true;
+            int mask = 0xFF << (8 - rest);
+            return (address[full] & mask) == (network[full] & mask);
+        }
+    }
+}
@@ -3,12 +3,14 @@ package com.expensetracker.backend.security; // Package: security services
 import com.expensetracker.backend.model.User; // Domain User entity
 import com.expensetracker.backend.repository.UserRepository; // Repository to find users by email
 import org.springframework.security.core.userdetails.UserDetails; // Spring Security UserDetails interface
+import org.springframework.security.core.userdetails.UserDetailsPasswordService; // Hook used to re-hash passwords on login
 import org.springframework.security.core.userdetails.UserDetailsService; // Abstraction to load user by username
 import org.springframework.security.core.userdetails.UsernameNotFoundException; // Exception when user not found
 import org.springframework.stereotype.Service; // Marks class as a Spring service
+import org.springframework.transaction.annotation.Transactional; // Update runs in its own transaction
 
 @Service // Register as Spring-managed service bean
-public class CustomUserDetailsService implements UserDetailsService { // UserDetailsService implementation using our repository
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService { // UserDetailsService implementation using our repository
 
     private final UserRepository userRepository; // Dependency: access to user data
 
@@ -20,10 +22,15 @@ public class CustomUserDetailsService implements UserDetailsService { // UserDet
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException { // Called by security framework
         User user = userRepository.findByEmail(username) // Look up user by email
                 .orElseThrow(() -> new UsernameNotFoundException("User not found")); // Throw if absent
-        return org.springframework.security.core.userdetails.User // Build Spring Security UserDetails
-                .withUsername(user.getEmail()) // Set username
-                .password(user.getPassword()) // Set hashed password
-                .authorities("USER") // Assign a default role
-                .build(); // Create immutable UserDetails
+        return AuthUser.from(user); // Principal carrying id, email and hashed password (role USER)
+    }
+
+    @Override // Called by DaoAuthenticationProvider after a login whose hash has an outdated cost
+    @Transactional // Load and update the row together
+    public UserDetails updatePassword(UserDetails user, String newPassword) { // Store the re-hashed password
+        User entity = userRepository.findByEmail(user.getUsername()) // Same lookup as at login
+                .orElseThrow(() -> new UsernameNotFoundException("User not found")); // Row vanished since authentication
+        entity.setPassword(newPassword); // Already encoded with the configured cost
+        return AuthUser.from(userRepository.save(entity)); // Save (evicts the cached principal) and return the fresh principal
     }
 }
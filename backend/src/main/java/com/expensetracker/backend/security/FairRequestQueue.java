@@ -0,0 +1,164 @@
+package com.expensetracker.backend.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-user fair admission in front of DB-bound request work.
+ *
+ * A fixed number of slots (by default the connection pool size) is
+ * shared by all users, and one user may hold at most per-user of them.
+ * When slots are busy, waiters queue per user and freed slots are handed
+ * out round-robin across users, so a tenant with 50 queued requests
+ * delays another tenant's single request by at most one turn.
+ *
+ * Enabled with ratelimit.fair-queue.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(name = "ratelimit.fair-queue.enabled", havingValue = "true")
+public class FairRequestQueue {
+
+    // ReentrantLock, not synchronized: waiters may be virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int perUser;
+    private int free;
+    private int queued;
+
+    private final Map<Long, Integer> inFlight = new HashMap<>();
+    private final Map<Long, Deque<CompletableFuture<Void>>> waiting = new HashMap<>();
+    // Users with waiters, in the order their next turn comes up
+    private final Deque<Long> turns = new ArrayDeque<>();
+
+    public FairRequestQueue(
+            @Value("${ratelimit.fair-queue.slots:${spring.datasource.hikari.maximum-pool-size:10}}") int slots,
+            @Value("${ratelimit.fair-queue.per-user:2}") int perUser,
+            MeterRegistry meterRegistry
+    ) {
+        this.free = slots;
+        this.perUser = perUser;
+        Gauge.builder("ratelimit.fair.queued", this, FairRequestQueue::queued)
+                .description("Requests waiting for a fair-queue slot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Waits up to maxWait for a slot. Returns false on timeout; on true the
+     * caller must call release(userId) when the work is done.
+     */
+    public boolean acquire(long userId, Duration maxWait) throws InterruptedException {
+        CompletableFuture<Void> ticket;
+        lock.lock();
+        try {
+            if (free > 0 && inFlight(userId) < perUser && !waiting.containsKey(userId)) {
+                grant(userId);
+                return true;
+            }
+            ticket = new CompletableFuture<>();
+            waiting.computeIfAbsent(userId, k -> {
+                turns.addLast(k);
+                return new ArrayDeque<>();
+            }).addLast(ticket);
+            queued++;
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            ticket.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return abandon(userId, ticket);
+        } catch (InterruptedException e) {
+            if (!abandon(userId, ticket)) throw e;
+            // Granted while we were interrupted: hand the slot straight back
+            release(userId);
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public void release(long userId) {
+        lock.lock();
+        try {
+            int held = inFlight(userId) - 1;
+            if (held <= 0) inFlight.remove(userId);
+            else inFlight.put(userId, held);
+            free++;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Drops a waiter that gave up. Returns true if it was granted in the meantime. */
+    private boolean abandon(long userId, CompletableFuture<Void> ticket) {
+        lock.lock();
+        try {
+            if (ticket.isDone()) return true;
+            Deque<CompletableFuture<Void>> queue = waiting.get(userId);
+            if (queue != null && queue.remove(ticket)) {
+                queued--;
+                if (queue.isEmpty()) {
+                    waiting.remove(userId);
+                    turns.remove(userId);
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Round-robin: each pass gives every eligible user at most one slot
+    private void dispatch() {
+        boolean progressed = true;
+        while (free > 0 && progressed) {
+            progressed = false;
+            for (int i = 0, n = turns.size(); i < n && free > 0; i++) {
+                Long user = turns.pollFirst();
+                Deque<CompletableFuture<Void>> queue = waiting.get(user);
+                if (inFlight(user) < perUser) {
+                    grant(user);
+                    queued--;
+                    queue.pollFirst().complete(null);
+                    progressed = true;
+                }
+                if (queue.isEmpty()) waiting.remove(user);
+                else turns.addLast(user);
+            }
+        }
+    }
+
+    private void grant(long userId) {
+        free--;
+        inFlight.merge(userId, 1, Integer::sum);
+    }
+
+    private int inFlight(long userId) {
+        return inFlight.getOrDefault(userId, 0);
+    }
+}
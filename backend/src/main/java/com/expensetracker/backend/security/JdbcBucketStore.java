@@ -0,0 +1,83 @@
+package com.expensetracker.backend.security;
+
+import com.expensetracker.backend.service.JobLeaseService;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.jdbc.PrimaryKeyMapper;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.postgresql.Bucket4jPostgreSQL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.function.Supplier;
+
+/**
+ * Buckets shared by every replica, stored in rate_limit_buckets through
+ * Bucket4j's PostgreSQL proxy manager: each consume is one short
+ * transaction serialized per key by pg_advisory_xact_lock.
+ *
+ * Bucket4j never deletes rows, so a trigger stamps updated_at on each
+ * write (docs/v4-migration.sql) and one replica purges rows idle for
+ * longer than ratelimit.jdbc.idle-timeout.
+ */
+@Component
+@ConditionalOnProperty(name = "ratelimit.store", havingValue = "jdbc")
+public class JdbcBucketStore implements BucketStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcBucketStore.class);
+
+    static final String TABLE = "rate_limit_buckets";
+    private static final String PURGE_LEASE = "ratelimit-purge";
+
+    private final ProxyManager<String> proxyManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final JobLeaseService leaseService;
+    private final Duration idleTimeout;
+
+    public JdbcBucketStore(
+            DataSource dataSource,
+            JdbcTemplate jdbcTemplate,
+            JobLeaseService leaseService,
+            @Value("${ratelimit.jdbc.idle-timeout:1h}") Duration idleTimeout
+    ) {
+        this.proxyManager = Bucket4jPostgreSQL.advisoryLockBasedBuilder(dataSource)
+                .primaryKeyMapper(PrimaryKeyMapper.STRING)
+                .table(TABLE)
+                .idColumn("id")
+                .stateColumn("state")
+                .build();
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseService = leaseService;
+        this.idleTimeout = idleTimeout;
+    }
+
+    @Override
+    public Bucket bucket(String key, Supplier<BucketConfiguration> configuration) {
+        return proxyManager.builder().build(key, configuration);
+    }
+
+    @Scheduled(fixedDelayString = "${ratelimit.jdbc.purge-interval:15m}")
+    public void purgeIdle() {
+        Instant now = Instant.now();
+        String owner = leaseService.nodeId();
+        if (!leaseService.tryAcquire(PURGE_LEASE, owner, Duration.ofMinutes(5), now)) {
+            return;
+        }
+        try {
+            int removed = jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE updated_at < ?",
+                    now.minus(idleTimeout).atOffset(ZoneOffset.UTC));
+            log.debug("[RateLimit] Purged {} idle buckets", removed);
+        } finally {
+            leaseService.release(PURGE_LEASE, owner);
+        }
+    }
+}
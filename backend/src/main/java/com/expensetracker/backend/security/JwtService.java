@@ -1,24 +1,76 @@
 package com.expensetracker.backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    // Claim carrying the numeric user id, so requests can reference the user without a lookup
+    public static final String USER_ID_CLAIM = "uid";
 
-    private SecretKey getSigningKey() {
+    // Key and parser are immutable and thread-safe: build them once
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    // Tokens verified moments ago skip the HMAC check; null when disabled (ttl = 0)
+    private final Cache<String, Claims> verified;
+
+    // Full signature checks only; cache hits show up as cache.gets{cache=jwt-verified}
+    private final Timer verifyValid;
+    private final Timer verifyInvalid;
+
+    public JwtService(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.verified-cache.ttl:30s}") Duration verifiedTtl,
+            @Value("${jwt.verified-cache.max-size:10000}") long verifiedMaxSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.signingKey = signingKey(secret);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verified = verifiedTtl.isZero()
+                ? null
+                : Caffeine.newBuilder()
+                        .expireAfterWrite(verifiedTtl)
+                        .maximumSize(verifiedMaxSize)
+                        .recordStats()
+                        .build();
+        if (verified != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt-verified");
+        }
+        this.verifyValid = verifyTimer(meterRegistry, "valid");
+        this.verifyInvalid = verifyTimer(meterRegistry, "invalid");
+    }
+
+    private static Timer verifyTimer(MeterRegistry registry, String result) {
+        return Timer.builder("jwt.verify")
+                .description("JWT signature and expiry verification")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static SecretKey signingKey(String secret) {
         // Use raw UTF-8 bytes directly — works for any string secret
         // No Base64 decoding — eliminates DecodingException entirely
         byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
@@ -35,30 +87,62 @@ public class JwtService {
 
     public String generateToken(UserDetails userDetails) {
         long now = System.currentTimeMillis();
-        return Jwts.builder()
+        var builder = Jwts.builder();
+        if (userDetails instanceof AuthUser authUser) {
+            builder.claim(USER_ID_CLAIM, authUser.getId());
+        }
+        return builder
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(now))
                 .setExpiration(new Date(now + 1000L * 60 * 60 * 24))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return getAllClaims(token).getSubject();
+    /**
+     * Verifies the token and returns its claims. Throws a JwtException if
+     * the signature is bad or the token has expired.
+     */
+    public Claims parseClaims(String token) {
+        if (verified == null) {
+            return verify(token);
+        }
+        Claims cached = verified.getIfPresent(token);
+        if (cached != null && cached.getExpiration().after(new Date())) {
+            return cached;
+        }
+        // Miss, or expired since it was cached: full verification (throws if expired)
+        Claims claims = verify(token);
+        verified.put(token, claims);
+        return claims;
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
-        Claims claims = getAllClaims(token);
-        return username.equals(userDetails.getUsername())
-                && claims.getExpiration().after(new Date());
+    private Claims verify(String token) {
+        long start = System.nanoTime();
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            verifyValid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            verifyInvalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
     }
 
-    private Claims getAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /** Checks already-verified claims against the resolved principal. */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername())
+                && claims.getExpiration().after(new Date())
+                && sameUser(claims, userDetails);
+    }
+
+    // A token minted for a deleted account must not carry over to a new account with the same email.
+    // Tokens issued before the uid claim existed are accepted on the email alone.
+    private boolean sameUser(Claims claims, UserDetails userDetails) {
+        Number uid = claims.get(USER_ID_CLAIM, Number.class);
+        if (uid == null || !(userDetails instanceof AuthUser authUser)) {
+            return true;
+        }
+        return uid.longValue() == authUser.getId();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package com.expensetracker.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * In-process buckets, bounded by count and idle time.
+ *
+ * An idle bucket is dropped only after ratelimit.local.idle-timeout,
+ * which should be at least the longest refill period: by then the bucket
+ * would be full again, so evicting it never loosens a limit. Size and
+ * evictions are published as cache.* metrics with cache=ratelimit-buckets.
+ */
+@Component
+@ConditionalOnProperty(name = "ratelimit.store", havingValue = "local", matchIfMissing = true)
+public class LocalBucketStore implements BucketStore {
+
+    private final Cache<String, Bucket> buckets;
+
+    public LocalBucketStore(
+            MeterRegistry meterRegistry,
+            @Value("${ratelimit.local.max-size:100000}") long maxSize,
+            @Value("${ratelimit.local.idle-timeout:10m}") Duration idleTimeout
+    ) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(idleTimeout)
+                // Evict on the calling thread so the bound holds at every moment, not eventually
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "ratelimit-buckets");
+    }
+
+    @Override
+    public Bucket bucket(String key, Supplier<BucketConfiguration> configuration) {
+        return buckets.get(key, k -> {
+            LocalBucketBuilder builder = Bucket.builder();
+            for (Bandwidth limit : configuration.get().getBandwidths()) {
+                builder.addLimit(limit);
+            }
+            return builder.build();
+        });
+    }
+
+    long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,73 @@
+package com.expensetracker.backend.security;
+
+import com.expensetracker.backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded, TTL-evicting cache of authenticated principals keyed by email.
+ *
+ * JwtAuthFilter resolves the bearer's principal here, so a warm request
+ * authenticates without touching the users table. Entries are evicted
+ * when the User row changes or is deleted (see UserCacheEvictionListener);
+ * the TTL bounds staleness for writes that bypass JPA.
+ *
+ * Hit/miss/eviction counts are published as cache.* metrics with
+ * cache=principals.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, AuthUser> cache;
+    private final UserRepository userRepository;
+
+    public PrincipalCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${auth.principal-cache.ttl:5m}") Duration ttl,
+            @Value("${auth.principal-cache.max-size:10000}") long maxSize
+    ) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+    }
+
+    /**
+     * Cached principal for the email, loading it on a miss; null if no such user.
+     * The load runs outside the cache's compute lock (a synchronized map bin),
+     * so a virtual thread blocked on JDBC here does not pin its carrier.
+     */
+    public AuthUser get(String email) {
+        AuthUser cached = cache.getIfPresent(email);
+        if (cached != null) {
+            return cached;
+        }
+        AuthUser loaded = userRepository.findByEmail(email)
+                .map(user -> AuthUser.from(user).withoutPassword())
+                .orElse(null);
+        if (loaded != null) {
+            cache.put(email, loaded);
+        }
+        return loaded;
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    Cache<String, AuthUser> cache() {
+        return cache;
+    }
+}
@@ -1,7 +1,9 @@
 package com.expensetracker.backend.security;
 
 import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,26 +14,44 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class RateLimitFilter extends OncePerRequestFilter {
 
-    // One bucket per IP address
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    // Allow 20 requests per minute per IP on auth endpoints
+    private static final BucketConfiguration AUTH_LIMIT = BucketConfiguration.builder()
+            .addLimit(Bandwidth.builder()
+                    .capacity(20)
+                    .refillIntervally(20, Duration.ofMinutes(1))
+                    .build())
+            .build();
 
-    private Bucket createBucket() {
-        // Allow 20 requests per minute per IP on auth endpoints
-        Bandwidth limit = Bandwidth.builder()
-                .capacity(20)
-                .refillIntervally(20, Duration.ofMinutes(1))
-                .build();
-        return Bucket.builder().addLimit(limit).build();
+    // One bucket per client IP, in a bounded local cache or the shared table
+    private final BucketStore bucketStore;
+    private final ClientIpResolver clientIpResolver;
+
+    // Rejections per endpoint; unknown auth paths share one tag value
+    private final Counter loginRejected;
+    private final Counter registerRejected;
+    private final Counter otherRejected;
+
+    public RateLimitFilter(
+            BucketStore bucketStore,
+            ClientIpResolver clientIpResolver,
+            MeterRegistry meterRegistry
+    ) {
+        this.bucketStore = bucketStore;
+        this.clientIpResolver = clientIpResolver;
+        this.loginRejected = rejectedCounter(meterRegistry, "login");
+        this.registerRejected = rejectedCounter(meterRegistry, "register");
+        this.otherRejected = rejectedCounter(meterRegistry, "other");
     }
 
-    private Bucket getBucket(String ip) {
-        return buckets.computeIfAbsent(ip, k -> createBucket());
+    private static Counter rejectedCounter(MeterRegistry registry, String endpoint) {
+        return Counter.builder("ratelimit.rejected")
+                .description("Requests rejected with 429 by the auth rate limiter")
+                .tag("endpoint", endpoint)
+                .register(registry);
     }
 
     @Override
@@ -48,12 +68,12 @@ public class RateLimitFilter extends OncePerRequestFilter {
             return;
         }
 
-        String ip = getClientIp(request);
-        Bucket bucket = getBucket(ip);
+        String ip = clientIpResolver.resolve(request);
 
-        if (bucket.tryConsume(1)) {
+        if (bucketStore.bucket("auth:" + ip, () -> AUTH_LIMIT).tryConsume(1)) {
             filterChain.doFilter(request, response);
         } else {
+            rejectedCounter(path).increment();
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
             response.setContentType("application/json");
             response.getWriter().write(
@@ -63,11 +83,11 @@ public class RateLimitFilter extends OncePerRequestFilter {
         }
     }
 
-    private String getClientIp(HttpServletRequest request) {
-        String forwarded = request.getHeader("X-Forwarded-For");
-        if (forwarded != null && !forwarded.isBlank()) {
-            return forwarded.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
+    private Counter rejectedCounter(String path) {
+        return switch (path) {
+            case "/api/auth/login" -> loginRejected;
+            case "/api/auth/register" -> registerRejected;
+            default -> otherRejected;
+        };
     }
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package com.expensetracker.backend.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -12,6 +16,8 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -26,17 +32,28 @@ public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
     private final RateLimitFilter rateLimitFilter;
+    private final UserRateLimitFilter userRateLimitFilter;
 
     // Read allowed origins from environment variable
     @Value("${allowed.origins:http://localhost:5173}")
     private String allowedOrigins;
 
+    // Addresses (or CIDR ranges) allowed to scrape /actuator/prometheus on the API port
+    @Value("${metrics.scrape-allowed-ips:127.0.0.1,::1}")
+    private String scrapeAllowedIps;
+
+    // Set (MANAGEMENT_SERVER_PORT) when /actuator is served on its own internal port
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     public SecurityConfig(
             JwtAuthFilter jwtAuthFilter,
-            RateLimitFilter rateLimitFilter  // ADD THIS
+            RateLimitFilter rateLimitFilter,  // ADD THIS
+            UserRateLimitFilter userRateLimitFilter
     ) {
         this.jwtAuthFilter = jwtAuthFilter;
         this.rateLimitFilter = rateLimitFilter; // ADD THIS
+        this.userRateLimitFilter = userRateLimitFilter;
     }
 
     @Bean
@@ -55,8 +72,14 @@ public class SecurityConfig {
                         )
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // Async re-dispatch of a streaming response (e.g. exports) was
+                        // already authorized on the original request dispatch
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/login", "/api/auth/register").permitAll()
                         .requestMatchers("/actuator/health").permitAll()
+                        // Metrics: anything on the internal management port, otherwise allow-listed scrapers only
+                        .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort).permitAll()
+                        .requestMatchers("/actuator/prometheus").access(scrapeAccess())
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(
@@ -66,11 +89,26 @@ public class SecurityConfig {
                 .addFilterBefore(
                         rateLimitFilter,
                         JwtAuthFilter.class
+                )
+                // Needs the authenticated user, so it runs after the JWT filter
+                .addFilterAfter(
+                        userRateLimitFilter,
+                        JwtAuthFilter.class
                 );
 
         return http.build();
     }
 
+    private AuthorizationManager<RequestAuthorizationContext> scrapeAccess() {
+        List<IpAddressMatcher> allowed = Arrays.stream(scrapeAllowedIps.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        return (authentication, context) ->
+                new AuthorizationDecision(allowed.stream().anyMatch(ip -> ip.matches(context.getRequest())));
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(
             AuthenticationConfiguration config) throws Exception {
@@ -103,8 +141,20 @@ public class SecurityConfig {
         return new CorsFilter(source);
     }
 
+    // BCrypt on its own bounded pool; hashes with a different cost are re-hashed on login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12); // increased from default 10
+    public PasswordEncoder passwordEncoder(
+            @Value("${password.bcrypt.cost:12}") int cost,
+            @Value("${password.hash.threads:0}") int threads,
+            @Value("${password.hash.queue-capacity:32}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        return new OffloadingPasswordEncoder(
+                new BCryptPasswordEncoder(cost),
+                cost,
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueCapacity,
+                meterRegistry
+        );
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.expensetracker.backend.security;
+
+import com.expensetracker.backend.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Drops a user's cached principal when the row is updated (e.g. a
+ * password change) or deleted.
+ *
+ * Evicts immediately and again after commit, so a concurrent request
+ * cannot re-cache the old row between the flush and the commit.
+ *
+ * Hibernate builds this listener while the EntityManagerFactory is still
+ * starting, before PrincipalCache (which needs a repository) can exist,
+ * so the cache is looked up lazily.
+ */
+@Component
+public class UserCacheEvictionListener {
+
+    private final ObjectProvider<PrincipalCache> principalCache;
+
+    public UserCacheEvictionListener(ObjectProvider<PrincipalCache> principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void onChange(User user) {
+        PrincipalCache cache = principalCache.getObject();
+        String email = user.getEmail();
+        cache.evict(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(email);
+                }
+            });
+        }
+    }
+}
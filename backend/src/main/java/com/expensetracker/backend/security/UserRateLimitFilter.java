@@ -0,0 +1,219 @@
+package com.expensetracker.backend.security;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Token-bucket limit per authenticated user for /api/**.
+ *
+ * Every user has one bucket; a request spends tokens according to its
+ * endpoint class, so a burst of aggregates drains it faster than a burst
+ * of list reads. Runs after JwtAuthFilter so the user id is known, and
+ * reports the bucket state in the RateLimit-* headers on every response.
+ * When the fair queue is enabled, admitted requests also wait there for
+ * a slot before reaching the controllers. A streaming response keeps
+ * its slot until the async request completes, not just until the
+ * controller returns.
+ */
+@Component
+public class UserRateLimitFilter extends OncePerRequestFilter {
+
+    /** Endpoint classes, each with its own token cost. */
+    enum CostClass { READ, HEAVY, WRITE }
+
+    // Aggregates and bulk transfers that scan a user's whole ledger
+    private static final String TOO_MANY_REQUESTS = "Too many requests. Please wait before trying again.";
+    private static final String BUSY = "Server is busy. Please retry shortly.";
+
+    private static final Set<String> HEAVY_PATHS = Set.of(
+            "/api/dashboard",
+            "/api/lending/summary",
+            "/api/savings",
+            "/api/expenses/export",
+            "/api/expenses/import"
+    );
+
+    private final BucketStore bucketStore;
+    private final FairRequestQueue fairQueue;
+    private final BucketConfiguration limit;
+    private final String policy;
+    private final long capacity;
+    private final Map<CostClass, Long> costs = new EnumMap<>(CostClass.class);
+    private final Map<CostClass, Counter> rejected = new EnumMap<>(CostClass.class);
+    private final Counter queueTimeouts;
+    private final Duration maxQueueWait;
+
+    public UserRateLimitFilter(
+            BucketStore bucketStore,
+            ObjectProvider<FairRequestQueue> fairQueue,
+            MeterRegistry meterRegistry,
+            @Value("${ratelimit.user.capacity:120}") long capacity,
+            @Value("${ratelimit.user.period:1m}") Duration period,
+            @Value("${ratelimit.user.cost.read:1}") long readCost,
+            @Value("${ratelimit.user.cost.heavy:10}") long heavyCost,
+            @Value("${ratelimit.user.cost.write:2}") long writeCost,
+            @Value("${ratelimit.fair-queue.max-wait:10s}") Duration maxQueueWait
+    ) {
+        this.bucketStore = bucketStore;
+        this.fairQueue = fairQueue.getIfAvailable();
+        this.capacity = capacity;
+        // Greedy refill: tokens trickle back instead of arriving all at once
+        this.limit = BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(capacity)
+                        .refillGreedy(capacity, period)
+                        .build())
+                .build();
+        this.policy = capacity + ";w=" + period.toSeconds();
+        this.costs.put(CostClass.READ, readCost);
+        this.costs.put(CostClass.HEAVY, heavyCost);
+        this.costs.put(CostClass.WRITE, writeCost);
+        for (CostClass costClass : CostClass.values()) {
+            rejected.put(costClass, Counter.builder("ratelimit.user.rejected")
+                    .description("Authenticated requests rejected with 429 by the per-user limiter")
+                    .tag("class", costClass.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.queueTimeouts = Counter.builder("ratelimit.fair.timeouts")
+                .description("Requests rejected with 503 after waiting for a fair-queue slot")
+                .register(meterRegistry);
+        this.maxQueueWait = maxQueueWait;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        // Auth endpoints have their own per-IP limit in RateLimitFilter
+        return !path.startsWith("/api/") || path.startsWith("/api/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof AuthUser user)) {
+            // Unauthenticated: let the security chain answer 401
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CostClass costClass = classify(request);
+        ConsumptionProbe probe = bucketStore.bucket("user:" + user.getId(), () -> limit)
+                .tryConsumeAndReturnRemaining(costs.get(costClass));
+
+        response.setHeader("RateLimit-Policy", policy);
+        response.setHeader("RateLimit-Limit", Long.toString(capacity));
+        response.setHeader("RateLimit-Remaining", Long.toString(probe.getRemainingTokens()));
+        response.setHeader("RateLimit-Reset", Long.toString(toSeconds(probe.getNanosToWaitForReset())));
+
+        if (!probe.isConsumed()) {
+            rejected.get(costClass).increment();
+            response.setHeader("Retry-After", Long.toString(Math.max(1, toSeconds(probe.getNanosToWaitForRefill()))));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_REQUESTS, request.getRequestURI());
+            return;
+        }
+
+        if (fairQueue == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean admitted;
+        try {
+            admitted = fairQueue.acquire(user.getId(), maxQueueWait);
+        } catch (InterruptedException e) {
+            // Interrupted while queued (e.g. shutdown): answer like a queue timeout, not an empty 200
+            Thread.currentThread().interrupt();
+            response.setHeader("Retry-After", "1");
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, BUSY, request.getRequestURI());
+            return;
+        }
+        if (!admitted) {
+            queueTimeouts.increment();
+            response.setHeader("Retry-After", "1");
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, BUSY, request.getRequestURI());
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                // e.g. the CSV export: the body is still being written on another thread
+                request.getAsyncContext().addListener(new ReleaseOnComplete(fairQueue, user.getId()));
+            } else {
+                fairQueue.release(user.getId());
+            }
+        }
+    }
+
+    static CostClass classify(HttpServletRequest request) {
+        if (HEAVY_PATHS.contains(request.getRequestURI())) return CostClass.HEAVY;
+        return HttpMethod.GET.matches(request.getMethod()) ? CostClass.READ : CostClass.WRITE;
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + 999_999_999L) / 1_000_000_000L;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message, String path)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType("application/json");
+        response.getWriter().write(
+                "{\"message\":\"" + message + "\","
+                        + "\"path\":\"" + path + "\"}"
+        );
+    }
+
+    /** Frees the fair-queue slot once an async request ends; onComplete also follows a timeout or error. */
+    private record ReleaseOnComplete(FairRequestQueue fairQueue, long userId) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            fairQueue.release(userId);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A new async cycle drops its listeners; stay registered for the final completion
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
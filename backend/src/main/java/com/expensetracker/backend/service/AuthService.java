@@ -4,13 +4,15 @@ import com.expensetracker.backend.dto.AuthDtos.AuthResponse;
 import com.expensetracker.backend.dto.AuthDtos.LoginRequest;
 import com.expensetracker.backend.dto.AuthDtos.MeResponse;
 import com.expensetracker.backend.dto.AuthDtos.RegisterRequest;
+import com.expensetracker.backend.dto.DashboardDtos.BootstrapResponse;
 import com.expensetracker.backend.model.User;
 import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.security.AuthUser;
 import com.expensetracker.backend.security.JwtService;
+import com.expensetracker.backend.security.PrincipalCache;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -23,21 +25,27 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
     private final JwtService jwtService;
+    private final DataVersionService dataVersionService;
+    private final PrincipalCache principalCache;
+    private final DashboardService dashboardService;
 
     public AuthService(
             UserRepository userRepository,
             PasswordEncoder passwordEncoder,
             AuthenticationManager authenticationManager,
-            UserDetailsService userDetailsService,
-            JwtService jwtService
+            JwtService jwtService,
+            DataVersionService dataVersionService,
+            PrincipalCache principalCache,
+            DashboardService dashboardService
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
         this.jwtService = jwtService;
+        this.dataVersionService = dataVersionService;
+        this.principalCache = principalCache;
+        this.dashboardService = dashboardService;
     }
 
     public AuthResponse register(RegisterRequest request) {
@@ -55,44 +63,58 @@ public class AuthService {
                 .build();
 
         userRepository.save(user);
+        dataVersionService.create(user.getId());
 
         // Still return token so backend is flexible
         // Frontend decides not to use it and redirects to login instead
-        return buildAuthResponse(user);
+        return buildAuthResponse(user, AuthUser.from(user), null);
     }
 
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, boolean bootstrap) {
         String email = normalizeEmail(request.email());
-        authenticationManager.authenticate(
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(email, request.password())
         );
 
-        User user = userRepository.findByEmail(email)
+        // The provider already loaded the principal; only the display names still need the row
+        AuthUser principal = (AuthUser) authentication.getPrincipal();
+        User user = userRepository.findById(principal.getId())
                 .orElseThrow(() -> new IllegalStateException("User not found after auth"));
 
-        return buildAuthResponse(user);
+        return buildAuthResponse(user, principal, bootstrap ? bootstrap(email) : null);
     }
 
     // New: return current user info based on the authenticated request
-    public MeResponse me(String email) {
-        User user = userRepository.findByEmail(normalizeEmail(email))
+    public MeResponse me(String email, boolean bootstrap) {
+        String normalized = normalizeEmail(email);
+        User user = userRepository.findByEmail(normalized)
                 .orElseThrow(() -> new IllegalStateException("User not found"));
 
         return new MeResponse(
                 user.getEmail(),
                 user.getFirstName(),
-                user.getLastName()
+                user.getLastName(),
+                bootstrap ? bootstrap(normalized) : null
         );
     }
 
-    private AuthResponse buildAuthResponse(User user) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getEmail());
-        String token = jwtService.generateToken(userDetails);
+    // Goes through PrincipalCache so the client's next bearer request finds its principal warm
+    private BootstrapResponse bootstrap(String email) {
+        AuthUser principal = principalCache.get(email);
+        if (principal == null) {
+            throw new IllegalStateException("User not found");
+        }
+        return dashboardService.bootstrap(principal);
+    }
+
+    private AuthResponse buildAuthResponse(User user, AuthUser principal, BootstrapResponse bootstrap) {
+        String token = jwtService.generateToken(principal);
         return new AuthResponse(
                 token,
                 user.getEmail(),
                 user.getFirstName(),
-                user.getLastName()
+                user.getLastName(),
+                bootstrap
         );
     }
 
@@ -3,44 +3,44 @@ package com.expensetracker.backend.service;
 import com.expensetracker.backend.dto.BudgetDtos.BudgetResponse;
 import com.expensetracker.backend.dto.BudgetDtos.BudgetUpdateRequest;
 import com.expensetracker.backend.model.Budget;
-import com.expensetracker.backend.model.Expense;
-import com.expensetracker.backend.model.Lending;
-import com.expensetracker.backend.model.LendingStatus;
-import com.expensetracker.backend.model.LendingType;
 import com.expensetracker.backend.model.User;
 import com.expensetracker.backend.repository.BudgetRepository;
-import com.expensetracker.backend.repository.ExpenseRepository;
 import com.expensetracker.backend.repository.LendingRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
-import java.util.List;
 
 @Service
 public class BudgetService {
 
     private final BudgetRepository budgetRepository;
-    private final ExpenseRepository expenseRepository;
+    private final SpendLedgerService ledgerService;
     private final LendingRepository lendingRepository;
     private final CurrentUserService currentUserService;
+    private final DataVersionService dataVersionService;
 
     public BudgetService(
             BudgetRepository budgetRepository,
-            ExpenseRepository expenseRepository,
+            SpendLedgerService ledgerService,
             LendingRepository lendingRepository,
-            CurrentUserService currentUserService
+            CurrentUserService currentUserService,
+            DataVersionService dataVersionService
     ) {
         this.budgetRepository = budgetRepository;
-        this.expenseRepository = expenseRepository;
+        this.ledgerService = ledgerService;
         this.lendingRepository = lendingRepository;
         this.currentUserService = currentUserService;
+        this.dataVersionService = dataVersionService;
     }
 
+    @Timed(value = "service.budget.get", histogram = true)
     @Transactional
     public BudgetResponse get() {
         User user = currentUserService.getCurrentUser();
@@ -71,6 +71,7 @@ public class BudgetService {
         budget.setUpdatedAt(Instant.now());
 
         budgetRepository.save(budget);
+        dataVersionService.bump(user.getId());
 
         return get();
     }
@@ -101,21 +102,12 @@ public class BudgetService {
         Instant monthStart = now.withDayOfMonth(1).atStartOfDay().toInstant(ZoneOffset.UTC);
         Instant monthEnd = now.plusMonths(1).withDayOfMonth(1).atStartOfDay().toInstant(ZoneOffset.UTC);
 
-        // Regular expenses
-        List<Expense> expenses = expenseRepository.findByUserId(userId);
-        BigDecimal expenseTotal = expenses.stream()
-                .filter(e -> !e.getDate().isBefore(monthStart) && e.getDate().isBefore(monthEnd))
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Expenses come from the monthly_spend rollup (a few rows per month)
+        BigDecimal expenseTotal = ledgerService.spentInMonth(userId, YearMonth.from(now));
 
         // Add lent-out amounts (only remaining, not what came back)
-        List<Lending> lendings = lendingRepository.findAllByUserId(userId);
-        BigDecimal lentThisMonth = lendings.stream()
-                .filter(l -> LendingType.LENT.equals(l.getType()))
-                .filter(l -> !LendingStatus.SETTLED.equals(l.getStatus()))
-                .filter(l -> !l.getDate().isBefore(monthStart) && l.getDate().isBefore(monthEnd))
-                .map(l -> l.getOriginalAmount().subtract(l.getReturnedAmount()))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal lentThisMonth = lendingRepository
+                .sumOutstandingLentByUserIdAndDateRange(userId, monthStart, monthEnd);
 
         return expenseTotal.add(lentThisMonth);
     }
@@ -127,7 +119,7 @@ public class BudgetService {
         return (int) days + 1;
     }
 
-    private String computeStatus(Budget budget, BigDecimal spent) {
+    static String computeStatus(Budget budget, BigDecimal spent) {
         if (!budget.isEnabled()) return "disabled";
         if (budget.getMonthlyAmount().compareTo(BigDecimal.ZERO) == 0) return "disabled";
 
@@ -0,0 +1,172 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.ExpenseDtos.ExpenseRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV statement: header row, then one expense per record.
+ * Recognised columns (case-insensitive): date, title (or description /
+ * payee), amount, category, paymentMethod (or payment_method), notes.
+ * Quoted fields may contain commas, doubled quotes and line breaks.
+ */
+class CsvStatementReader implements StatementReader {
+
+    private final BufferedReader reader;
+    private final String defaultCategory;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long lineNumber = 0;
+
+    CsvStatementReader(BufferedReader reader, String defaultCategory) throws IOException {
+        this.reader = reader;
+        this.defaultCategory = defaultCategory;
+        readHeader();
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "");
+            switch (name) {
+                case "description", "payee" -> columns.putIfAbsent("title", i);
+                default -> columns.putIfAbsent(name, i);
+            }
+        }
+        for (String required : List.of("date", "title", "amount")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header must contain a '" + required + "' column");
+            }
+        }
+    }
+
+    @Override
+    public Row next() throws IOException {
+        List<String> fields;
+        do {
+            fields = readRecord();
+            if (fields == null) return null;
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        long row = lineNumber;
+        try {
+            Instant date = parseDate(field(fields, "date"));
+            BigDecimal amount = parseAmount(field(fields, "amount"));
+            String category = field(fields, "category");
+            return Row.ok(row, new ExpenseRequest(
+                    field(fields, "title"),
+                    amount,
+                    category == null || category.isBlank() ? defaultCategory : category,
+                    date,
+                    field(fields, "notes"),
+                    field(fields, "paymentmethod")
+            ));
+        } catch (IllegalArgumentException e) {
+            return Row.error(row, e.getMessage());
+        }
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer idx = columns.get(column);
+        if (idx == null || idx >= fields.size()) return null;
+        String value = fields.get(idx).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    static Instant parseDate(String value) {
+        if (value == null) throw new IllegalArgumentException("Date is required");
+        try {
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay().toInstant(ZoneOffset.UTC);
+            }
+            // Any offset (Z, +05:30, -05:00); without one the time is taken as UTC
+            TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parseBest(
+                    value, OffsetDateTime::from, LocalDateTime::from);
+            return parsed instanceof OffsetDateTime withOffset
+                    ? withOffset.toInstant()
+                    : ((LocalDateTime) parsed).toInstant(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + value);
+        }
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        if (value == null) throw new IllegalArgumentException("Amount is required");
+        try {
+            return new BigDecimal(value.replace(",", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + value);
+        }
+    }
+
+    /**
+     * Reads one RFC 4180 record, following quoted line breaks.
+     * Returns null at end of input.
+     */
+    private List<String> readRecord() throws IOException {
+        String line = reader.readLine();
+        if (line == null) return null;
+        lineNumber++;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            current.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            if (!quoted) break;
+
+            // Quoted field continues on the next physical line
+            line = reader.readLine();
+            if (line == null) break;
+            lineNumber++;
+            current.append('\n');
+        }
+
+        fields.add(current.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
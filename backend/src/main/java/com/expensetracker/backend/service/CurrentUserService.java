@@ -3,6 +3,7 @@ package com.expensetracker.backend.service;
 import com.expensetracker.backend.exception.EntityNotFoundException;
 import com.expensetracker.backend.model.User;
 import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.security.AuthUser;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -24,6 +25,12 @@ public class CurrentUserService {
         }
 
         Object principal = authentication.getPrincipal();
+        if (principal instanceof AuthUser authUser) {
+            // Id came from the cached principal: hand out a reference, no query.
+            // Callers only need the id (ownership checks, foreign keys).
+            return userRepository.getReferenceById(authUser.getId());
+        }
+
         String email = principal instanceof UserDetails userDetails
                 ? userDetails.getUsername()
                 : authentication.getName();
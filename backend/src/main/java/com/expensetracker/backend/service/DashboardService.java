@@ -0,0 +1,213 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.DashboardDtos.BootstrapResponse;
+import com.expensetracker.backend.dto.DashboardDtos.DashboardResponse;
+import com.expensetracker.backend.dto.ExpenseDtos.ExpenseFilter;
+import com.expensetracker.backend.dto.ExpenseDtos.ExpensePageResponse;
+import com.expensetracker.backend.dto.PreferenceDtos.PreferenceResponse;
+import com.expensetracker.backend.security.AuthUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * GET /api/dashboard: the first-paint sections in one request.
+ *
+ * The user and their data version are resolved once on the request
+ * thread, and so are ReadModelCache hits for the three aggregates. Only
+ * the sections left (cache misses and the first expense page) run
+ * concurrently on fanOutExecutor (virtual threads in virtual mode), each
+ * in its own read transaction, so a warm dashboard needs one connection.
+ *
+ * Sections of all dashboards share dashboard.max-concurrent-sections
+ * permits, kept below the connection pool size, so concurrent dashboards
+ * cannot take every connection from other requests and the batch jobs.
+ * Every section has the same timeout, counted from the start of the
+ * request and including the wait for a permit, so the response waits at
+ * most that long. A section that times out or fails is left out and
+ * named in unavailable instead of failing the whole dashboard.
+ *
+ * bootstrap() is the smaller set the login and /me responses carry with
+ * ?bootstrap=true (preferences, budget, first expense page), run the same
+ * way for a given user. At login there is no authenticated request yet,
+ * so its sections get a security context built from that user.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    private static final ExpenseFilter ALL_EXPENSES = new ExpenseFilter(null, null, null, null, null, null, null);
+
+    private final BudgetService budgetService;
+    private final SavingsService savingsService;
+    private final LendingService lendingService;
+    private final ExpenseService expenseService;
+    private final PreferenceService preferenceService;
+    private final ReadModelCache readModelCache;
+    private final DataVersionService dataVersionService;
+    private final ExecutorService fanOutExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Duration sectionTimeout;
+    private final int recentExpenses;
+    private final Semaphore sectionPermits;
+
+    public DashboardService(
+            BudgetService budgetService,
+            SavingsService savingsService,
+            LendingService lendingService,
+            ExpenseService expenseService,
+            PreferenceService preferenceService,
+            ReadModelCache readModelCache,
+            DataVersionService dataVersionService,
+            @Qualifier("fanOutExecutor") ExecutorService fanOutExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${dashboard.section-timeout:2s}") Duration sectionTimeout,
+            @Value("${dashboard.recent-expenses:10}") int recentExpenses,
+            @Value("${dashboard.max-concurrent-sections:2}") int maxConcurrentSections
+    ) {
+        this.budgetService = budgetService;
+        this.savingsService = savingsService;
+        this.lendingService = lendingService;
+        this.expenseService = expenseService;
+        this.preferenceService = preferenceService;
+        this.readModelCache = readModelCache;
+        this.dataVersionService = dataVersionService;
+        this.fanOutExecutor = fanOutExecutor;
+        this.meterRegistry = meterRegistry;
+        this.sectionTimeout = sectionTimeout;
+        this.recentExpenses = recentExpenses;
+        this.sectionPermits = new Semaphore(maxConcurrentSections, true);
+    }
+
+    public DashboardResponse get() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof AuthUser user)) {
+            throw new IllegalStateException("No authenticated user");
+        }
+        SecurityContext context = SecurityContextHolder.getContext();
+        Long userId = user.getId();
+        long version = dataVersionService.current(userId);
+        long start = System.nanoTime();
+
+        Future<byte[]> budget = readModel(context, start, userId, version, "budget", budgetService::get);
+        Future<byte[]> savings = readModel(context, start, userId, version, "savings", savingsService::get);
+        Future<byte[]> lending = readModel(context, start, userId, version, "lending.summary.totals",
+                () -> lendingService.summary(false));
+        Future<ExpensePageResponse> expenses = submit(context, start,
+                () -> expenseService.listPage(ALL_EXPENSES, null, recentExpenses));
+
+        List<String> unavailable = new ArrayList<>();
+        return new DashboardResponse(
+                json(await("dashboard", "budget", budget, start, unavailable)),
+                json(await("dashboard", "savings", savings, start, unavailable)),
+                json(await("dashboard", "lendingSummary", lending, start, unavailable)),
+                await("dashboard", "recentExpenses", expenses, start, unavailable),
+                unavailable
+        );
+    }
+
+    /** First-paint data for a user who just authenticated; also fills the budget read model. */
+    public BootstrapResponse bootstrap(AuthUser user) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        Long userId = user.getId();
+        long version = dataVersionService.current(userId);
+        long start = System.nanoTime();
+
+        Future<PreferenceResponse> preferences = submit(context, start, preferenceService::get);
+        Future<byte[]> budget = readModel(context, start, userId, version, "budget", budgetService::get);
+        Future<ExpensePageResponse> expenses = submit(context, start,
+                () -> expenseService.listPage(ALL_EXPENSES, null, recentExpenses));
+
+        List<String> unavailable = new ArrayList<>();
+        return new BootstrapResponse(
+                await("bootstrap", "preferences", preferences, start, unavailable),
+                json(await("bootstrap", "budget", budget, start, unavailable)),
+                await("bootstrap", "recentExpenses", expenses, start, unavailable),
+                unavailable
+        );
+    }
+
+    // A cache hit is answered on the request thread; only a miss becomes a section
+    private Future<byte[]> readModel(SecurityContext context, long start, Long userId, long version,
+                                     String endpoint, Supplier<?> compute) {
+        byte[] cached = readModelCache.cached(userId, version, endpoint);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return submit(context, start, () -> readModelCache.compute(userId, version, endpoint, compute));
+    }
+
+    // Sections run as the given user: the services read it from the security context
+    private <T> Future<T> submit(SecurityContext context, long start, Callable<T> section) {
+        Callable<T> bounded = () -> {
+            long remaining = start + sectionTimeout.toNanos() - System.nanoTime();
+            if (!sectionPermits.tryAcquire(Math.max(remaining, 0), TimeUnit.NANOSECONDS)) {
+                throw new TimeoutException("No free dashboard section permit");
+            }
+            try {
+                return section.call();
+            } finally {
+                sectionPermits.release();
+            }
+        };
+        return fanOutExecutor.submit(new DelegatingSecurityContextCallable<>(bounded, context));
+    }
+
+    private <T> T await(String view, String section, Future<T> future, long start, List<String> unavailable) {
+        String outcome = "ok";
+        try {
+            long remaining = start + sectionTimeout.toNanos() - System.nanoTime();
+            return future.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            future.cancel(true);
+            log.warn("[Dashboard] {} section {} timed out after {}", view, section, sectionTimeout);
+        } catch (ExecutionException e) {
+            outcome = "error";
+            log.warn("[Dashboard] {} section {} failed", view, section, e.getCause());
+        } catch (InterruptedException e) {
+            outcome = "error";
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+        } finally {
+            Timer.builder("dashboard.section")
+                    .description("Time until a dashboard section was available, from the start of the request")
+                    .tag("view", view)
+                    .tag("section", section)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        unavailable.add(section);
+        return null;
+    }
+
+    private static String json(byte[] bytes) {
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+}
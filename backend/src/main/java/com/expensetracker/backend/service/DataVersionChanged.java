@@ -0,0 +1,6 @@
+package com.expensetracker.backend.service;
+
+import java.util.List;
+
+/** Published inside a write transaction whose commit bumps these users' data versions. */
+public record DataVersionChanged(List<Long> userIds) {}
@@ -0,0 +1,108 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.config.DatabaseDialect;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-user data version behind the conditional-GET ETags.
+ *
+ * bump runs inside the writer's transaction, so the new version becomes
+ * visible exactly when the data does and a rollback undoes both. The
+ * UPDATE row-locks the user's version until commit, which orders one
+ * user's concurrent writes but never blocks other users. Batch callers
+ * bump in user id order so two batches cannot deadlock on each other.
+ */
+@Service
+public class DataVersionService {
+
+    private static final String BUMP_SQL =
+            "UPDATE user_data_versions SET version = version + 1 WHERE user_id = ?";
+
+    private static final String INSERT_POSTGRES_SQL =
+            "INSERT INTO user_data_versions (user_id, version) VALUES (?, 0) ON CONFLICT (user_id) DO NOTHING";
+
+    private static final String INSERT_H2_SQL =
+            "MERGE INTO user_data_versions t USING (SELECT CAST(? AS BIGINT) user_id) s " +
+            "ON t.user_id = s.user_id WHEN NOT MATCHED THEN INSERT (user_id, version) VALUES (s.user_id, 0)";
+
+    private static final String SELECT_SQL =
+            "SELECT version FROM user_data_versions WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertSql;
+    private final ApplicationEventPublisher events;
+
+    public DataVersionService(
+            JdbcTemplate jdbcTemplate,
+            DatabaseDialect dialect,
+            ApplicationEventPublisher events
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.events = events;
+        this.insertSql = dialect.choose(INSERT_POSTGRES_SQL, INSERT_H2_SQL);
+    }
+
+    /** Current version, 0 for a user that has never written. One primary-key lookup. */
+    public long current(Long userId) {
+        List<Long> versions = jdbcTemplate.queryForList(SELECT_SQL, Long.class, userId);
+        return versions.isEmpty() ? 0L : versions.get(0);
+    }
+
+    /** Called at registration; later bumps are then a plain UPDATE. */
+    @Transactional
+    public void create(Long userId) {
+        insertIfAbsent(userId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bump(Long userId) {
+        bumpAll(List.of(userId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bumpAll(Collection<Long> userIds) {
+        List<Long> sorted = userIds.stream().distinct().sorted().toList();
+        if (sorted.isEmpty()) return;
+        // Delivered to @TransactionalEventListener(AFTER_COMMIT) listeners only if this transaction commits
+        events.publishEvent(new DataVersionChanged(sorted));
+
+        List<Long> missing = new ArrayList<>();
+        int[][] counts = jdbcTemplate.batchUpdate(BUMP_SQL, sorted, sorted.size(), (ps, id) -> ps.setLong(1, id));
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int rows : batch) {
+                if (rows == 0) missing.add(sorted.get(i));
+                i++;
+            }
+        }
+        if (missing.isEmpty()) return;
+
+        // Users created before the table existed (or by the seeder). The insert skips a row created
+        // concurrently, so it runs in the caller's transaction without risking an abort on PostgreSQL.
+        for (Long userId : missing) {
+            insertIfAbsent(userId);
+        }
+        for (int[] batch : jdbcTemplate.batchUpdate(BUMP_SQL, missing, missing.size(), (ps, id) -> ps.setLong(1, id))) {
+            for (int rows : batch) {
+                if (rows == 0) throw new IllegalStateException("Data version row missing after insert");
+            }
+        }
+    }
+
+    private void insertIfAbsent(Long userId) {
+        try {
+            jdbcTemplate.update(insertSql, userId);
+        } catch (DuplicateKeyException e) {
+            // H2's MERGE can still lose a race to a concurrent insert; the row now exists
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.expensetracker.backend.service;
 
+import com.expensetracker.backend.dto.ExpenseDtos.ExpenseFilter;
+import com.expensetracker.backend.dto.ExpenseDtos.ExpensePageResponse;
 import com.expensetracker.backend.dto.ExpenseDtos.ExpenseRequest;
 import com.expensetracker.backend.dto.ExpenseDtos.ExpenseResponse;
 import com.expensetracker.backend.exception.EntityNotFoundException;
@@ -7,34 +9,99 @@ import com.expensetracker.backend.model.Expense;
 import com.expensetracker.backend.model.PaymentMethod;
 import com.expensetracker.backend.model.User;
 import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.service.SpendLedgerService.LedgerKey;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 
+import static com.expensetracker.backend.repository.ExpenseSpecifications.*;
+
 @Service
 public class ExpenseService {
 
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final Sort KEYSET_ORDER = Sort.by(
+            Sort.Order.desc("date"),
+            Sort.Order.desc("id")
+    );
+
     private final ExpenseRepository expenseRepository;
     private final CurrentUserService currentUserService;
+    private final SpendLedgerService ledgerService;
+    private final DataVersionService dataVersionService;
 
     public ExpenseService(
             ExpenseRepository expenseRepository,
-            CurrentUserService currentUserService
+            CurrentUserService currentUserService,
+            SpendLedgerService ledgerService,
+            DataVersionService dataVersionService
     ) {
         this.expenseRepository = expenseRepository;
         this.currentUserService = currentUserService;
+        this.ledgerService = ledgerService;
+        this.dataVersionService = dataVersionService;
     }
 
     public List<ExpenseResponse> listCurrentUser() {
         User user = currentUserService.getCurrentUser();
         return expenseRepository.findByUserId(user.getId())
                 .stream()
-                .map(this::toResponse)
+                .map(ExpenseService::toResponse)
                 .toList();
     }
 
+    /**
+     * One page of the user's expenses, newest first, keyed on (date, id).
+     * Fetches limit + 1 rows to learn whether another page exists, so the
+     * cost per page is independent of how many expenses the user has.
+     */
+    @Transactional(readOnly = true)
+    public ExpensePageResponse listPage(ExpenseFilter filter, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        User user = currentUserService.getCurrentUser();
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        Specification<Expense> spec = Specification.allOf(
+                ownedBy(user.getId()),
+                dateFrom(filter.from()),
+                dateBefore(filter.to()),
+                category(filter.category()),
+                paymentMethod(filter.paymentMethod() == null ? null : filter.paymentMethod().trim().toUpperCase()),
+                amountAtLeast(filter.minAmount()),
+                amountAtMost(filter.maxAmount()),
+                recurringOnly(filter.recurringOnly()),
+                after == null ? null : after(after.date(), after.id())
+        );
+
+        List<Expense> rows = expenseRepository.findBy(spec, q -> q
+                .sortBy(KEYSET_ORDER)
+                .limit(limit + 1)
+                .all());
+
+        boolean hasMore = rows.size() > limit;
+        List<Expense> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Expense last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getDate(), last.getId()).encode();
+        }
+
+        return new ExpensePageResponse(
+                page.stream().map(ExpenseService::toResponse).toList(),
+                nextCursor,
+                hasMore
+        );
+    }
+
+    @Transactional
     public ExpenseResponse add(ExpenseRequest request) {
         validateExpenseRequest(request);
         User user = currentUserService.getCurrentUser();
@@ -47,9 +114,12 @@ public class ExpenseService {
         e.setPaymentMethod(normalizePaymentMethod(request.paymentMethod()));
         e.setUser(user);
         e = expenseRepository.save(e);
+        ledgerService.recordAdded(user, e);
+        dataVersionService.bump(user.getId());
         return toResponse(e);
     }
 
+    @Transactional
     public ExpenseResponse update(UUID id, ExpenseRequest request) {
         validateExpenseRequest(request);
         User user = currentUserService.getCurrentUser();
@@ -59,6 +129,10 @@ public class ExpenseService {
         if (!e.getUser().getId().equals(user.getId())) {
             throw new IllegalArgumentException("Cannot modify another user's expense");
         }
+        // Remember the old ledger bucket before the edit moves it
+        LedgerKey oldKey = SpendLedgerService.keyOf(e);
+        BigDecimal oldAmount = e.getAmount();
+
         e.setTitle(request.title());
         e.setAmount(request.amount());
         e.setCategory(request.category());
@@ -66,9 +140,12 @@ public class ExpenseService {
         e.setNotes(request.notes());
         e.setPaymentMethod(normalizePaymentMethod(request.paymentMethod()));
         e = expenseRepository.save(e);
+        ledgerService.recordChanged(user, oldKey, oldAmount, e);
+        dataVersionService.bump(user.getId());
         return toResponse(e);
     }
 
+    @Transactional
     public void delete(UUID id) {
         User user = currentUserService.getCurrentUser();
         Expense e = expenseRepository.findById(id)
@@ -78,9 +155,12 @@ public class ExpenseService {
             throw new IllegalArgumentException("Cannot delete another user's expense");
         }
         expenseRepository.delete(e);
+        ledgerService.recordRemoved(user, e);
+        dataVersionService.bump(user.getId());
     }
 
-    private void validateExpenseRequest(ExpenseRequest request) {
+    // Shared with ImportService so bulk rows follow the same rules
+    static void validateExpenseRequest(ExpenseRequest request) {
         if (request.title() == null || request.title().isBlank())
             throw new IllegalArgumentException("Title is required");
         if (request.amount() == null || request.amount().compareTo(BigDecimal.ZERO) <= 0)
@@ -95,13 +175,13 @@ public class ExpenseService {
      * Normalize payment method to uppercase and validate.
      * Defaults to CASH if null or invalid.
      */
-    private String normalizePaymentMethod(String method) {
+    static String normalizePaymentMethod(String method) {
         if (method == null || method.isBlank()) return PaymentMethod.CASH;
         String upper = method.trim().toUpperCase();
         return PaymentMethod.ALL.contains(upper) ? upper : PaymentMethod.CASH;
     }
 
-    private ExpenseResponse toResponse(Expense e) {
+    static ExpenseResponse toResponse(Expense e) {
         return new ExpenseResponse(
                 e.getId(),
                 e.getTitle(),
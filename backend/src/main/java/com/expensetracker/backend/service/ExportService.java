@@ -0,0 +1,182 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.ExportDtos.ExpenseExportRow;
+import com.expensetracker.backend.dto.ExportDtos.LendingExportRow;
+import com.expensetracker.backend.dto.ExportDtos.PaymentExportRow;
+import com.expensetracker.backend.exception.ServiceOverloadedException;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.LendingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Streams a user's full ledger as CSV or NDJSON.
+ *
+ * Rows are read from forward-only JDBC cursors (fetch-size hinted,
+ * read-only transaction) and written straight to the response, so heap
+ * use does not depend on how many rows the user has.
+ *
+ * Each export holds its transaction, and so a pool connection, until the
+ * last row is written, which for a slow client can take up to the async
+ * request timeout. Only export.max-concurrent of them run at once; past
+ * that, export() answers 503 instead of queueing behind the pool.
+ */
+@Service
+public class ExportService {
+
+    private static final String CSV_HEADER =
+            "record_type,id,parent_id,date,title,amount,category,payment_method,status,notes," +
+            "lending_type,returned_amount\n";
+
+    private final ExpenseRepository expenseRepository;
+    private final LendingRepository lendingRepository;
+    private final CurrentUserService currentUserService;
+    private final ObjectWriter jsonWriter;
+    private final TransactionTemplate readOnlyTx;
+    private final Semaphore exportPermits;
+
+    public ExportService(
+            ExpenseRepository expenseRepository,
+            LendingRepository lendingRepository,
+            CurrentUserService currentUserService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${export.max-concurrent:2}") int maxConcurrent
+    ) {
+        this.expenseRepository = expenseRepository;
+        this.lendingRepository = lendingRepository;
+        this.currentUserService = currentUserService;
+        this.jsonWriter = objectMapper.writer();
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.exportPermits = new Semaphore(maxConcurrent);
+    }
+
+    public enum Format {
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+        public final MediaType mediaType;
+        public final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Format must be csv or ndjson");
+            }
+        }
+    }
+
+    /**
+     * Resolves the user and takes an export permit on the request thread,
+     * then returns a body that streams on the async thread inside its own
+     * read-only transaction and gives the permit back when it ends.
+     */
+    public StreamingResponseBody export(Format format, boolean includeLendings) {
+        Long userId = currentUserService.getCurrentUser().getId();
+        if (!exportPermits.tryAcquire()) {
+            throw new ServiceOverloadedException("Too many exports in progress. Please try again shortly.");
+        }
+        return out -> {
+            try {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+                try {
+                    readOnlyTx.executeWithoutResult(status -> writeAll(userId, format, includeLendings, writer));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                writer.flush();
+            } finally {
+                exportPermits.release();
+            }
+        };
+    }
+
+    private void writeAll(Long userId, Format format, boolean includeLendings, Writer writer) {
+        if (format == Format.CSV) write(writer, CSV_HEADER);
+
+        try (Stream<ExpenseExportRow> rows = expenseRepository.streamExportRowsByUserId(userId)) {
+            rows.forEach(r -> write(writer, format == Format.CSV ? csv(r) : json(r)));
+        }
+
+        if (!includeLendings) return;
+
+        try (Stream<LendingExportRow> rows = lendingRepository.streamExportRowsByUserId(userId)) {
+            rows.forEach(r -> write(writer, format == Format.CSV ? csv(r) : json(r)));
+        }
+        try (Stream<PaymentExportRow> rows = lendingRepository.streamPaymentExportRowsByUserId(userId)) {
+            rows.forEach(r -> write(writer, format == Format.CSV ? csv(r) : json(r)));
+        }
+    }
+
+    // ── Row formatting ───────────────────────────────
+
+    private String json(Object row) {
+        try {
+            return jsonWriter.writeValueAsString(row) + "\n";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String csv(ExpenseExportRow r) {
+        return csvLine("expense", r.id(), r.recurringId(), r.date(), r.title(), r.amount(),
+                r.category(), r.paymentMethod(), null, r.notes());
+    }
+
+    private String csv(LendingExportRow r) {
+        // amount is the original amount; returned_amount what has been paid back so far
+        return csvLine("lending", r.id(), null, r.date(), r.personName(), r.originalAmount(),
+                null, null, r.status(), r.notes(), r.lendingType(), r.returnedAmount());
+    }
+
+    private String csv(PaymentExportRow r) {
+        return csvLine("payment", r.id(), r.lendingId(), r.date(), null, r.amount(),
+                null, null, null, r.notes());
+    }
+
+    private String csvLine(Object... fields) {
+        StringBuilder sb = new StringBuilder(128);
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) sb.append(',');
+            if (fields[i] != null) sb.append(csvEscape(fields[i].toString()));
+        }
+        return sb.append('\n').toString();
+    }
+
+    private String csvEscape(String value) {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    private void write(Writer writer, String text) {
+        try {
+            writer.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.ExpenseDtos.ExpenseRequest;
+import com.expensetracker.backend.dto.ImportDtos.ImportResult;
+import com.expensetracker.backend.dto.ImportDtos.RowError;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.ExpenseRepository.DedupRow;
+import com.expensetracker.backend.service.SpendLedgerService.BucketTotal;
+import com.expensetracker.backend.service.SpendLedgerService.LedgerKey;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bulk import of bank statements (CSV or OFX).
+ *
+ * The file is parsed as a stream and written in chunks: each chunk runs
+ * in its own transaction, inserts with a single JDBC batch (ids generated
+ * up front, so nothing waits on the database for keys) and applies one
+ * grouped update to the monthly spend ledger.
+ *
+ * Rows matching an expense that already existed before the import on
+ * (date, amount, title) are reported as duplicates instead of inserted.
+ * Repeats inside the file itself are kept — two identical coffees on the
+ * same day are real — so re-importing a statement is idempotent. The
+ * counts behind this only cover the current chunk's date window and are
+ * dropped as it moves on, so memory stays flat however long the
+ * statement is (statements are date-ordered, so windows rarely revisit).
+ */
+@Service
+public class ImportService {
+
+    static final int CHUNK_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO expenses (id, title, amount, category, date, notes, payment_method, user_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ExpenseRepository expenseRepository;
+    private final CurrentUserService currentUserService;
+    private final SpendLedgerService ledgerService;
+    private final DataVersionService dataVersionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+
+    public ImportService(
+            ExpenseRepository expenseRepository,
+            CurrentUserService currentUserService,
+            SpendLedgerService ledgerService,
+            DataVersionService dataVersionService,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.expenseRepository = expenseRepository;
+        this.currentUserService = currentUserService;
+        this.ledgerService = ledgerService;
+        this.dataVersionService = dataVersionService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    public enum Format {
+        CSV, OFX;
+
+        /** Explicit format wins; otherwise guess from the file extension. */
+        static Format resolve(String format, String filename) {
+            String value = format;
+            if (value == null || value.isBlank()) {
+                String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+                value = name.endsWith(".ofx") || name.endsWith(".qfx") ? "ofx" : "csv";
+            }
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Format must be csv or ofx");
+            }
+        }
+    }
+
+    public ImportResult importStatement(MultipartFile file, String format, String defaultCategory) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("File is required");
+        }
+        if (defaultCategory == null || defaultCategory.isBlank()) {
+            throw new IllegalArgumentException("Category is required");
+        }
+        Format fmt = Format.resolve(format, file.getOriginalFilename());
+        User user = currentUserService.getCurrentUser();
+        long started = System.nanoTime();
+
+        Progress progress = new Progress();
+        try (StatementReader reader = open(file, fmt, defaultCategory.trim())) {
+            List<Pending> chunk = new ArrayList<>(CHUNK_SIZE);
+            StatementReader.Row row;
+            while ((row = reader.next()) != null) {
+                progress.totalRows++;
+                if (row.skipReason() != null) {
+                    progress.skipped++;
+                    continue;
+                }
+                if (row.error() != null) {
+                    progress.fail(row.number(), row.error());
+                    continue;
+                }
+                String invalid = validate(row.request());
+                if (invalid != null) {
+                    progress.fail(row.number(), invalid);
+                    continue;
+                }
+                chunk.add(Pending.of(row.request()));
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(user, chunk, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(user, chunk, progress);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import file", e);
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        double seconds = Math.max(elapsedNanos / 1_000_000_000d, 1e-9);
+        return new ImportResult(
+                progress.totalRows,
+                progress.imported,
+                progress.duplicates,
+                progress.skipped,
+                progress.failed,
+                progress.errors,
+                progress.failed > progress.errors.size(),
+                elapsedNanos / 1_000_000,
+                Math.round(progress.totalRows / seconds * 10) / 10d
+        );
+    }
+
+    private StatementReader open(MultipartFile file, Format fmt, String defaultCategory) throws IOException {
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8), 64 * 1024);
+        return switch (fmt) {
+            case CSV -> new CsvStatementReader(in, defaultCategory);
+            case OFX -> new OfxStatementReader(in, defaultCategory);
+        };
+    }
+
+    /** Same rules as single-row writes, plus the column limits a batch insert would trip on. */
+    private static String validate(ExpenseRequest request) {
+        try {
+            ExpenseService.validateExpenseRequest(request);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        if (request.title().length() > 255) return "Title is too long";
+        if (request.category().length() > 255) return "Category is too long";
+        if (request.notes() != null && request.notes().length() > 2048) return "Notes are too long";
+        if (request.amount().scale() > 4 || request.amount().precision() - request.amount().scale() > 15)
+            return "Amount is out of range";
+        return null;
+    }
+
+    private void writeChunk(User user, List<Pending> chunk, Progress progress) {
+        tx.executeWithoutResult(status -> {
+            Instant from = chunk.get(0).date;
+            Instant to = from;
+            for (Pending p : chunk) {
+                if (p.date.isBefore(from)) from = p.date;
+                if (p.date.isAfter(to)) to = p.date;
+            }
+
+            progress.retainWindow(from, to);
+
+            // Count what already sits in the chunk's date span, net of rows this import wrote earlier
+            Map<Fingerprint, Integer> stored = new HashMap<>();
+            for (DedupRow r : expenseRepository.findDedupRowsByUserIdAndDateRange(user.getId(), from, to)) {
+                stored.merge(Fingerprint.of(r.date(), r.amount(), r.title()), 1, Integer::sum);
+            }
+            stored.forEach((fp, count) ->
+                    progress.preExisting.putIfAbsent(fp, count - progress.inserted.getOrDefault(fp, 0)));
+
+            List<Pending> toInsert = new ArrayList<>(chunk.size());
+            Map<LedgerKey, BucketTotal> ledgerDeltas = new HashMap<>();
+            for (Pending p : chunk) {
+                int available = progress.preExisting.getOrDefault(p.fingerprint, 0)
+                        - progress.matched.getOrDefault(p.fingerprint, 0);
+                if (available > 0) {
+                    progress.matched.merge(p.fingerprint, 1, Integer::sum);
+                    progress.duplicates++;
+                    continue;
+                }
+                toInsert.add(p);
+                progress.inserted.merge(p.fingerprint, 1, Integer::sum);
+                ledgerDeltas.merge(
+                        LedgerKey.of(p.date, p.category, p.paymentMethod),
+                        new BucketTotal(p.amount, 1),
+                        BucketTotal::plus
+                );
+            }
+
+            if (!toInsert.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, toInsert, toInsert.size(), (PreparedStatement ps, Pending p) -> {
+                    ps.setObject(1, p.id);
+                    ps.setString(2, p.title);
+                    ps.setBigDecimal(3, p.amount);
+                    ps.setString(4, p.category);
+                    ps.setObject(5, p.date.atOffset(ZoneOffset.UTC));
+                    if (p.notes == null) ps.setNull(6, Types.VARCHAR);
+                    else ps.setString(6, p.notes);
+                    ps.setString(7, p.paymentMethod);
+                    ps.setLong(8, user.getId());
+                });
+                ledgerService.recordBatch(user, ledgerDeltas);
+                dataVersionService.bump(user.getId());
+            }
+            progress.imported += toInsert.size();
+        });
+    }
+
+    // date, amount, title — amount without trailing zeros so 10 and 10.0000 match
+    private record Fingerprint(Instant date, String amount, String title) {
+        static Fingerprint of(Instant date, BigDecimal amount, String title) {
+            return new Fingerprint(date, amount.stripTrailingZeros().toPlainString(), title.trim());
+        }
+    }
+
+    private record Pending(
+            UUID id, String title, BigDecimal amount, String category,
+            Instant date, String notes, String paymentMethod, Fingerprint fingerprint
+    ) {
+        static Pending of(ExpenseRequest r) {
+            String title = r.title().trim();
+            return new Pending(
+                    UUID.randomUUID(),
+                    title,
+                    r.amount(),
+                    r.category().trim(),
+                    r.date(),
+                    r.notes(),
+                    ExpenseService.normalizePaymentMethod(r.paymentMethod()),
+                    Fingerprint.of(r.date(), r.amount(), title)
+            );
+        }
+    }
+
+    private static final class Progress {
+        int totalRows, imported, duplicates, skipped, failed;
+        final List<RowError> errors = new ArrayList<>();
+        // Dedup bookkeeping for the current date window, carried into overlapping chunks
+        final Map<Fingerprint, Integer> preExisting = new HashMap<>();
+        final Map<Fingerprint, Integer> matched = new HashMap<>();
+        final Map<Fingerprint, Integer> inserted = new HashMap<>();
+
+        /** Forgets fingerprints outside [from, to]; no later row of this chunk can match them. */
+        void retainWindow(Instant from, Instant to) {
+            for (Map<Fingerprint, Integer> counts : List.of(preExisting, matched, inserted)) {
+                counts.keySet().removeIf(fp -> fp.date().isBefore(from) || fp.date().isAfter(to));
+            }
+        }
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(row, message));
+            }
+        }
+    }
+}
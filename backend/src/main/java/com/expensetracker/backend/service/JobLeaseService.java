@@ -0,0 +1,106 @@
+package com.expensetracker.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * DB-backed leases so a scheduled job (or one partition of it) runs on
+ * one replica at a time. Every operation is a single conditional
+ * statement, so two nodes racing for the same lease cannot both win.
+ *
+ * Leases expire rather than relying on release: a node that dies
+ * mid-run loses its lease after the TTL and another node takes over.
+ * Long runs call renew between chunks and stop if it fails.
+ */
+@Service
+public class JobLeaseService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobLeaseService.class);
+
+    private static final String TAKE_SQL =
+            "UPDATE job_leases SET owner = ?, acquired_at = ?, expires_at = ? " +
+            "WHERE lease_name = ? AND (owner = ? OR expires_at <= ?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO job_leases (lease_name, owner, acquired_at, expires_at) VALUES (?, ?, ?, ?)";
+
+    private static final String RENEW_SQL =
+            "UPDATE job_leases SET expires_at = ? WHERE lease_name = ? AND owner = ? AND expires_at > ?";
+
+    private static final String RELEASE_SQL =
+            "DELETE FROM job_leases WHERE lease_name = ? AND owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId;
+
+    public JobLeaseService(
+            JdbcTemplate jdbcTemplate,
+            @Value("${scheduling.node-id:}") String nodeId
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+    }
+
+    /** This replica's lease owner id. */
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Takes the lease if it is free, expired, or already ours.
+     * Returns false when another owner holds an unexpired lease.
+     */
+    public boolean tryAcquire(String leaseName, String owner, Duration ttl, Instant now) {
+        OffsetDateTime at = utc(now);
+        OffsetDateTime expires = utc(now.plus(ttl));
+
+        if (jdbcTemplate.update(TAKE_SQL, owner, at, expires, leaseName, owner, at) == 1) {
+            return true;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, leaseName, owner, at, expires);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Row exists and is held by someone else
+            log.debug("[JobLease] {} held by another node", leaseName);
+            return false;
+        }
+    }
+
+    /** Extends a lease we still hold. False means it expired and may have been taken over. */
+    public boolean renew(String leaseName, String owner, Duration ttl, Instant now) {
+        return jdbcTemplate.update(RENEW_SQL, utc(now.plus(ttl)), leaseName, owner, utc(now)) == 1;
+    }
+
+    /** Gives up a lease early; a no-op if someone else has taken it over. */
+    public void release(String leaseName, String owner) {
+        jdbcTemplate.update(RELEASE_SQL, leaseName, owner);
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        // Suffix keeps two processes on one host apart
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,39 @@
+package com.expensetracker.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque page cursor for (date DESC, id DESC) keyset pagination.
+ * Encoded as URL-safe Base64 of "epochSecond.nano|uuid" so clients
+ * treat it as a token and never build one themselves.
+ */
+public record KeysetCursor(Instant date, UUID id) {
+
+    public String encode() {
+        String raw = date.getEpochSecond() + "." + date.getNano() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a null/blank cursor (first page).
+     * Throws IllegalArgumentException (→ 400) for a malformed one.
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int bar = raw.indexOf('|');
+            int dot = raw.indexOf('.');
+            Instant date = Instant.ofEpochSecond(
+                    Long.parseLong(raw.substring(0, dot)),
+                    Long.parseLong(raw.substring(dot + 1, bar)));
+            return new KeysetCursor(date, UUID.fromString(raw.substring(bar + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
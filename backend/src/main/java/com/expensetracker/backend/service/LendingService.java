@@ -9,45 +9,137 @@ import com.expensetracker.backend.model.LendingType;
 import com.expensetracker.backend.model.User;
 import com.expensetracker.backend.repository.LendingPaymentRepository;
 import com.expensetracker.backend.repository.LendingRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import static com.expensetracker.backend.repository.LendingSpecifications.*;
+
 @Service
 public class LendingService {
 
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final int MAX_PERSONS_PAGE = 200;
+    // Lending ids per payment IN query, well under PostgreSQL's bind-parameter limit
+    private static final int PAYMENT_BATCH_SIZE = 500;
+
+    private static final Sort KEYSET_ORDER = Sort.by(
+            Sort.Order.desc("date"),
+            Sort.Order.desc("id")
+    );
+
     private final LendingRepository lendingRepository;
     private final LendingPaymentRepository paymentRepository;
     private final CurrentUserService currentUserService;
+    private final DataVersionService dataVersionService;
+    private final int maxSummaryPersons;
 
     public LendingService(
             LendingRepository lendingRepository,
             LendingPaymentRepository paymentRepository,
-            CurrentUserService currentUserService
+            CurrentUserService currentUserService,
+            DataVersionService dataVersionService,
+            @Value("${lending.summary.max-persons:500}") int maxSummaryPersons
     ) {
         this.lendingRepository = lendingRepository;
         this.paymentRepository = paymentRepository;
         this.currentUserService = currentUserService;
+        this.dataVersionService = dataVersionService;
+        this.maxSummaryPersons = maxSummaryPersons;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<LendingResponse> list() {
         User user = currentUserService.getCurrentUser();
-        return lendingRepository.findAllByUserId(user.getId())
-                .stream()
-                .map(this::toResponse)
-                .toList();
+        return withPayments(lendingRepository.findAllByUserId(user.getId()));
     }
 
-    @Transactional
-    public LendingSummaryResponse summary() {
+    /**
+     * One page of the user's lendings, newest first, keyed on (date, id).
+     * Payments for the whole page come from one IN query (or none at all
+     * with includePayments=false), so the query count does not grow with
+     * the page size.
+     */
+    @Transactional(readOnly = true)
+    public LendingPageResponse listPage(LendingFilter filter, String cursor, int limit, boolean includePayments) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        String type = normalize(filter.type(), LendingType.ALL, "Type must be LENT or BORROWED");
+        String status = normalize(filter.status(), LendingStatus.ALL, "Status must be ACTIVE, PARTIAL or SETTLED");
+        User user = currentUserService.getCurrentUser();
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        Specification<Lending> spec = Specification.allOf(
+                ownedBy(user.getId()),
+                type(type),
+                status(status),
+                person(filter.personName() == null ? null : filter.personName().trim()),
+                after == null ? null : after(after.date(), after.id())
+        );
+
+        List<Lending> rows = lendingRepository.findBy(spec, q -> q
+                .sortBy(KEYSET_ORDER)
+                .limit(limit + 1)
+                .all());
+
+        boolean hasMore = rows.size() > limit;
+        List<Lending> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Lending last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getDate(), last.getId()).encode();
+        }
+
+        List<LendingResponse> items = includePayments
+                ? withPayments(page)
+                : page.stream().map(l -> toResponse(l, null)).toList();
+        return new LendingPageResponse(items, nextCursor, hasMore);
+    }
+
+    @Timed(value = "service.lending.summary", histogram = true)
+    @Transactional(readOnly = true)
+    public LendingSummaryResponse summary(boolean includePersons) {
         User user = currentUserService.getCurrentUser();
-        List<Lending> all = lendingRepository.findAllByUserId(user.getId());
+        List<LendingTotalsRow> totals = lendingRepository.sumByTypeAndStatus(user.getId());
+        List<String> knownPersons = includePersons
+                ? lendingRepository.findDistinctPersonNamesByUserId(user.getId(), Limit.of(maxSummaryPersons))
+                : List.of();
+        return summarize(totals, knownPersons);
+    }
 
+    // Autocomplete page: distinct names starting with prefix (case-insensitive), after the previous page's last name
+    @Transactional(readOnly = true)
+    public List<String> persons(String prefix, String after, int limit) {
+        if (limit < 1 || limit > MAX_PERSONS_PAGE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PERSONS_PAGE);
+        }
+        User user = currentUserService.getCurrentUser();
+        String pattern = (prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT))
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return lendingRepository.findDistinctPersonNamesPage(
+                user.getId(), pattern, after == null ? "" : after, Limit.of(limit));
+    }
+
+    // Folds the per-(type, status) groups into the summary totals; separate so it can be benchmarked on its own
+    static LendingSummaryResponse summarize(List<LendingTotalsRow> totals, List<String> knownPersons) {
         BigDecimal totalLent = BigDecimal.ZERO;
         BigDecimal totalBorrowed = BigDecimal.ZERO;
         BigDecimal owedToYou = BigDecimal.ZERO;
@@ -55,27 +147,25 @@ public class LendingService {
         int activeLentCount = 0;
         int activeBorrowedCount = 0;
 
-        for (Lending l : all) {
-            BigDecimal remaining = l.getOriginalAmount().subtract(l.getReturnedAmount());
-            boolean isActive = !LendingStatus.SETTLED.equals(l.getStatus());
+        for (LendingTotalsRow row : totals) {
+            boolean isActive = !LendingStatus.SETTLED.equals(row.status());
 
-            if (LendingType.LENT.equals(l.getType())) {
-                totalLent = totalLent.add(l.getOriginalAmount());
+            if (LendingType.LENT.equals(row.type())) {
+                totalLent = totalLent.add(row.originalAmount());
                 if (isActive) {
-                    owedToYou = owedToYou.add(remaining);
-                    activeLentCount++;
+                    owedToYou = owedToYou.add(row.remainingAmount());
+                    activeLentCount += row.count().intValue();
                 }
-            } else if (LendingType.BORROWED.equals(l.getType())) {
-                totalBorrowed = totalBorrowed.add(l.getOriginalAmount());
+            } else if (LendingType.BORROWED.equals(row.type())) {
+                totalBorrowed = totalBorrowed.add(row.originalAmount());
                 if (isActive) {
-                    youOwe = youOwe.add(remaining);
-                    activeBorrowedCount++;
+                    youOwe = youOwe.add(row.remainingAmount());
+                    activeBorrowedCount += row.count().intValue();
                 }
             }
         }
 
         BigDecimal netPosition = owedToYou.subtract(youOwe);
-        List<String> knownPersons = lendingRepository.findDistinctPersonNamesByUserId(user.getId());
 
         return new LendingSummaryResponse(
                 totalLent,
@@ -107,7 +197,9 @@ public class LendingService {
                 .updatedAt(Instant.now())
                 .build();
 
-        return toResponse(lendingRepository.save(l));
+        l = lendingRepository.save(l);
+        dataVersionService.bump(user.getId());
+        return toResponse(l);
     }
 
     @Transactional
@@ -134,7 +226,9 @@ public class LendingService {
         // Recalculate status
         l.setStatus(computeStatus(l));
 
-        return toResponse(lendingRepository.save(l));
+        l = lendingRepository.save(l);
+        dataVersionService.bump(user.getId());
+        return toResponse(l);
     }
 
     @Transactional
@@ -142,42 +236,71 @@ public class LendingService {
         User user = currentUserService.getCurrentUser();
         Lending l = findOwned(id, user);
         lendingRepository.delete(l);
+        dataVersionService.bump(user.getId());
     }
 
+    /**
+     * Applies the payment with one conditional UPDATE (balance check,
+     * totals, status and version together) and inserts the payment row.
+     * Concurrent payments serialize on the row lock, so they can neither
+     * overpay nor lose an update, and the payments collection is never
+     * loaded to write.
+     */
     @Transactional
     public LendingResponse recordPayment(UUID id, PaymentRequest request) {
         User user = currentUserService.getCurrentUser();
-        Lending l = findOwned(id, user);
+        Instant now = Instant.now();
 
-        // Validate: payment doesn't exceed remaining
-        BigDecimal remaining = l.getOriginalAmount().subtract(l.getReturnedAmount());
-        if (request.amount().compareTo(remaining) > 0) {
+        if (lendingRepository.applyPayment(id, user.getId(), request.amount(), now) == 0) {
+            // Nothing matched: report why, from the row as it is now
+            Lending l = findOwned(id, user);
+            BigDecimal remaining = l.getOriginalAmount().subtract(l.getReturnedAmount());
             throw new IllegalArgumentException(
                     "Payment amount (" + request.amount() +
                             ") exceeds remaining balance (" + remaining + ")"
             );
         }
 
-        // Create payment record
-        LendingPayment payment = LendingPayment.builder()
-                .lending(l)
+        paymentRepository.save(LendingPayment.builder()
+                .lending(lendingRepository.getReferenceById(id))
                 .amount(request.amount())
                 .date(request.date())
                 .notes(request.notes())
-                .createdAt(Instant.now())
-                .build();
+                .createdAt(now)
+                .build());
+        dataVersionService.bump(user.getId());
 
-        l.getPayments().add(payment);
+        // Bulk UPDATE bypassed the persistence context; read the row back as committed by this transaction
+        Lending updated = lendingRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Lending not found"));
+        return withPayments(List.of(updated)).get(0);
+    }
 
-        // Update lending totals
-        l.setReturnedAmount(l.getReturnedAmount().add(request.amount()));
-        l.setStatus(computeStatus(l));
-        l.setUpdatedAt(Instant.now());
+    // ── Helpers ──────────────────────────────────────
 
-        return toResponse(lendingRepository.save(l));
+    // Maps lendings with their payments, loaded in IN batches rather than per lending
+    private List<LendingResponse> withPayments(List<Lending> lendings) {
+        List<UUID> ids = lendings.stream().map(Lending::getId).toList();
+        Map<UUID, List<PaymentResponse>> byLending = new HashMap<>();
+        for (int i = 0; i < ids.size(); i += PAYMENT_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(i, Math.min(ids.size(), i + PAYMENT_BATCH_SIZE));
+            for (LendingPayment p : paymentRepository.findByLendingIdIn(batch)) {
+                byLending.computeIfAbsent(p.getLending().getId(), k -> new ArrayList<>()).add(toPaymentResponse(p));
+            }
+        }
+        return lendings.stream()
+                .map(l -> toResponse(l, byLending.getOrDefault(l.getId(), List.of())))
+                .toList();
     }
 
-    // ── Helpers ──────────────────────────────────────
+    private static String normalize(String value, Set<String> allowed, String message) {
+        if (value == null || value.isBlank()) return null;
+        String upper = value.trim().toUpperCase(Locale.ROOT);
+        if (!allowed.contains(upper)) {
+            throw new IllegalArgumentException(message);
+        }
+        return upper;
+    }
 
     private Lending findOwned(UUID id, User user) {
         Lending l = lendingRepository.findById(id)
@@ -207,18 +330,15 @@ public class LendingService {
         return LendingStatus.PARTIAL;
     }
 
-    private LendingResponse toResponse(Lending l) {
-        BigDecimal remaining = l.getOriginalAmount().subtract(l.getReturnedAmount());
-        List<PaymentResponse> paymentResponses = l.getPayments().stream()
-                .map(p -> new PaymentResponse(
-                        p.getId(),
-                        p.getAmount(),
-                        p.getDate(),
-                        p.getNotes(),
-                        p.getCreatedAt()
-                ))
-                .toList();
+    // Single-lending responses; walks the lazy collection, so not for lists
+    static LendingResponse toResponse(Lending l) {
+        return toResponse(l, l.getPayments().stream()
+                .map(LendingService::toPaymentResponse)
+                .toList());
+    }
 
+    static LendingResponse toResponse(Lending l, List<PaymentResponse> paymentResponses) {
+        BigDecimal remaining = l.getOriginalAmount().subtract(l.getReturnedAmount());
         return new LendingResponse(
                 l.getId(),
                 l.getType(),
@@ -234,4 +354,14 @@ public class LendingService {
                 paymentResponses
         );
     }
-}
\ No newline at end of file
+
+    private static PaymentResponse toPaymentResponse(LendingPayment p) {
+        return new PaymentResponse(
+                p.getId(),
+                p.getAmount(),
+                p.getDate(),
+                p.getNotes(),
+                p.getCreatedAt()
+        );
+    }
+}
@@ -1,113 +1,406 @@
 package com.expensetracker.backend.service;
 
-import com.expensetracker.backend.model.Budget;
-import com.expensetracker.backend.model.Expense;
-import com.expensetracker.backend.model.MonthlySnapshot;
-import com.expensetracker.backend.model.User;
-import com.expensetracker.backend.repository.BudgetRepository;
-import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.model.JobCheckpoint;
+import com.expensetracker.backend.repository.JobCheckpointRepository;
 import com.expensetracker.backend.repository.MonthlySnapshotRepository;
+import com.expensetracker.backend.repository.MonthlySnapshotRepository.PendingSnapshot;
 import com.expensetracker.backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
 import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Runs on the 1st of every month at 02:00 UTC.
  * Snapshots the PREVIOUS month's budget vs spending for each user.
  * Result becomes savings history.
+ *
+ * Users are paged by id in chunks. Each chunk is one short transaction:
+ * one grouped query finds the users still missing a snapshot together
+ * with their month spend, then one JDBC batch inserts the snapshots.
+ * At most snapshot.parallelism chunks run at once on the shared
+ * fanOutExecutor; the job_checkpoints row records the highest id below
+ * which every chunk has committed. A crashed or partially failed run
+ * leaves it RUNNING, and a daily pass resumes such runs from there;
+ * the monthly run also finishes an earlier month still RUNNING before
+ * it reuses the checkpoint row.
+ *
+ * With snapshot.partitions > 1 users are split by MOD(id, partitions);
+ * each partition has its own checkpoint and lease, so replicas firing
+ * together each take a different partition.
  */
 @Component
 public class MonthlySnapshotScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(MonthlySnapshotScheduler.class);
 
+    static final String JOB_NAME = "monthly-snapshot";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO monthly_snapshots (id, user_id, snapshot_year, snapshot_month, " +
+            "budget_amount, spent_amount, saved_amount, finalized_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final UserRepository userRepository;
-    private final BudgetRepository budgetRepository;
-    private final ExpenseRepository expenseRepository;
     private final MonthlySnapshotRepository snapshotRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int partitions;
+    private final Duration leaseTtl;
+    private final JobLeaseService leaseService;
+    private final DataVersionService dataVersionService;
+    private final ExecutorService fanOutExecutor;
+
+    private final Counter usersScanned;
+    private final Counter snapshotsCreated;
+    private final Counter chunksFailed;
+    private final Timer chunkTimer;
+    private final Timer runTimer;
+    private final AtomicLong progressDone = new AtomicLong();
+    private final AtomicLong progressTotal = new AtomicLong();
 
     public MonthlySnapshotScheduler(
             UserRepository userRepository,
-            BudgetRepository budgetRepository,
-            ExpenseRepository expenseRepository,
-            MonthlySnapshotRepository snapshotRepository
+            MonthlySnapshotRepository snapshotRepository,
+            JobCheckpointRepository checkpointRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            JobLeaseService leaseService,
+            DataVersionService dataVersionService,
+            @Qualifier("fanOutExecutor") ExecutorService fanOutExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${snapshot.chunk-size:500}") int chunkSize,
+            @Value("${snapshot.parallelism:2}") int parallelism,
+            @Value("${snapshot.partitions:1}") int partitions,
+            @Value("${snapshot.lease-ttl:10m}") Duration leaseTtl
     ) {
         this.userRepository = userRepository;
-        this.budgetRepository = budgetRepository;
-        this.expenseRepository = expenseRepository;
         this.snapshotRepository = snapshotRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.partitions = partitions;
+        this.leaseTtl = leaseTtl;
+        this.leaseService = leaseService;
+        this.dataVersionService = dataVersionService;
+        this.fanOutExecutor = fanOutExecutor;
+
+        this.usersScanned = Counter.builder("snapshot.job.users")
+                .description("Users scanned by the monthly snapshot job")
+                .register(meterRegistry);
+        this.snapshotsCreated = Counter.builder("snapshot.job.created")
+                .description("Monthly snapshots inserted")
+                .register(meterRegistry);
+        this.chunksFailed = Counter.builder("snapshot.job.chunks.failed")
+                .description("Chunks rolled back; retried by the daily resume")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("snapshot.job.chunk")
+                .description("Time to snapshot one chunk of users")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("snapshot.job.run")
+                .description("Duration of a monthly snapshot run on this node")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("snapshot.job.progress", this, s -> s.progress())
+                .description("Fraction of users processed in the current run")
+                .register(meterRegistry);
+    }
+
+    public record RunStats(
+            YearMonth month,
+            long resumedAfterId,
+            long usersScanned,
+            int snapshotsCreated,
+            int failedChunks,
+            int skippedPartitions,
+            boolean completed
+    ) {
+
+        // resumedAfterId: highest id any partition resumed after (0 = all started fresh)
+        RunStats plus(RunStats other) {
+            return new RunStats(month, Math.max(resumedAfterId, other.resumedAfterId),
+                    usersScanned + other.usersScanned, snapshotsCreated + other.snapshotsCreated,
+                    failedChunks + other.failedChunks, skippedPartitions + other.skippedPartitions,
+                    completed && other.completed);
+        }
     }
 
     /**
      * Runs at 02:00 UTC on the 1st day of every month.
      */
     @Scheduled(cron = "0 0 2 1 * *", zone = "UTC")
-    @Transactional
     public void finalizePreviousMonth() {
-        LocalDate today = LocalDate.now(ZoneOffset.UTC);
-        LocalDate prevMonth = today.minusMonths(1);
-        int year = prevMonth.getYear();
-        int month = prevMonth.getMonthValue();
-
-        log.info("[SnapshotScheduler] Finalizing {}/{}", month, year);
-
-        List<User> users = userRepository.findAll();
-        for (User user : users) {
-            try {
-                createSnapshotIfMissing(user, year, month);
-            } catch (Exception e) {
-                log.error("[SnapshotScheduler] Failed for user {}: {}",
-                        user.getId(), e.getMessage());
+        finalizeMonth(YearMonth.from(LocalDate.now(ZoneOffset.UTC).minusMonths(1)));
+    }
+
+    /**
+     * Runs at 02:30 UTC every day: picks up partitions whose last run ended
+     * RUNNING (crashed, lost its lease, or had a failed chunk).
+     */
+    @Scheduled(cron = "0 30 2 * * *", zone = "UTC")
+    public void resumeIncompleteRuns() {
+        resumeIncomplete();
+    }
+
+    /** Resumes every partition whose checkpoint is still RUNNING, whatever month it is for. */
+    public List<RunStats> resumeIncomplete() {
+        return runTimer.record(() -> {
+            resetProgress();
+            List<RunStats> resumed = new ArrayList<>();
+            for (int p = 0; p < partitions; p++) {
+                YearMonth pending = incompleteMonth(p);
+                if (pending != null) {
+                    resumed.add(finalizePartition(pending, p));
+                }
             }
+            return resumed;
+        });
+    }
+
+    public RunStats finalizeMonth(YearMonth month) {
+        return runTimer.record(() -> {
+            resetProgress();
+
+            RunStats total = null;
+            for (int p = 0; p < partitions; p++) {
+                YearMonth pending = incompleteMonth(p);
+                if (pending != null && pending.isBefore(month)) {
+                    // This run reuses the partition's checkpoint row; finish the earlier month first
+                    finalizePartition(pending, p);
+                }
+                RunStats stats = finalizePartition(month, p);
+                total = total == null ? stats : total.plus(stats);
+            }
+            return total;
+        });
+    }
+
+    private void resetProgress() {
+        progressTotal.set(userRepository.count());
+        progressDone.set(0);
+    }
+
+    private String checkpointName(int partition) {
+        return partitions == 1 ? JOB_NAME : JOB_NAME + ":p" + partition + "/" + partitions;
+    }
+
+    /** Month of the partition's last run if it did not complete, else null. */
+    private YearMonth incompleteMonth(int partition) {
+        return checkpointRepository.findById(checkpointName(partition))
+                .filter(c -> JobCheckpoint.RUNNING.equals(c.getStatus()))
+                .map(c -> YearMonth.parse(c.getRunKey()))
+                .orElse(null);
+    }
+
+    /** One partition's run, under its lease; skipped if another replica holds it. */
+    private RunStats finalizePartition(YearMonth month, int partition) {
+        String name = checkpointName(partition);
+        String owner = leaseService.nodeId();
+        if (!leaseService.tryAcquire(name, owner, leaseTtl, Instant.now())) {
+            log.info("[SnapshotScheduler] {} is running on another node", name);
+            return new RunStats(month, 0, 0, 0, 0, 1, false);
+        }
+        try {
+            return runPartition(name, month, partition);
+        } finally {
+            leaseService.release(name, owner);
         }
     }
 
-    private void createSnapshotIfMissing(User user, int year, int month) {
-        boolean exists = snapshotRepository
-                .findByUserIdAndYearAndMonth(user.getId(), year, month)
-                .isPresent();
-        if (exists) return;
-
-        Budget budget = budgetRepository.findByUserId(user.getId()).orElse(null);
-        if (budget == null || !budget.isEnabled()) return;
-        if (budget.getMonthlyAmount().compareTo(BigDecimal.ZERO) == 0) return;
-
-        // Sum expenses in that month
-        LocalDate monthStart = LocalDate.of(year, month, 1);
-        LocalDate monthEnd = monthStart.plusMonths(1);
-        Instant startInstant = monthStart.atStartOfDay().toInstant(ZoneOffset.UTC);
-        Instant endInstant = monthEnd.atStartOfDay().toInstant(ZoneOffset.UTC);
-
-        List<Expense> expenses = expenseRepository.findByUserId(user.getId());
-        BigDecimal spent = expenses.stream()
-                .filter(e -> !e.getDate().isBefore(startInstant) && e.getDate().isBefore(endInstant))
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal saved = budget.getMonthlyAmount().subtract(spent);
-        if (saved.compareTo(BigDecimal.ZERO) < 0) saved = BigDecimal.ZERO;
-
-        MonthlySnapshot snap = MonthlySnapshot.builder()
-                .user(user)
-                .year(year)
-                .month(month)
-                .budgetAmount(budget.getMonthlyAmount())
-                .spentAmount(spent)
-                .savedAmount(saved)
-                .finalizedAt(Instant.now())
-                .build();
-
-        snapshotRepository.save(snap);
-        log.info("[SnapshotScheduler] Snapshot saved for user {} {}/{} — saved ₹{}",
-                user.getId(), month, year, saved);
-    }
-}
\ No newline at end of file
+    private RunStats runPartition(String name, YearMonth month, int partition) {
+        String runKey = month.toString();
+        JobCheckpoint checkpoint = checkpointRepository.findById(name).orElse(null);
+
+        long resumeAfter = 0;
+        long processed = 0;
+        if (checkpoint != null && runKey.equals(checkpoint.getRunKey())) {
+            if (JobCheckpoint.COMPLETED.equals(checkpoint.getStatus())) {
+                log.info("[SnapshotScheduler] {} already finalized by {}", runKey, name);
+                return new RunStats(month, checkpoint.getLastId(), 0, 0, 0, 0, true);
+            }
+            resumeAfter = checkpoint.getLastId();
+            processed = checkpoint.getProcessedCount();
+            log.info("[SnapshotScheduler] Resuming {} {} after user {}", name, runKey, resumeAfter);
+        } else {
+            if (checkpoint != null && JobCheckpoint.RUNNING.equals(checkpoint.getStatus())) {
+                log.warn("[SnapshotScheduler] {} {} is still incomplete after user {}; giving it up for {}",
+                        name, checkpoint.getRunKey(), checkpoint.getLastId(), runKey);
+            }
+            log.info("[SnapshotScheduler] Finalizing {} {}", name, runKey);
+        }
+        saveCheckpoint(name, runKey, resumeAfter, processed, JobCheckpoint.RUNNING);
+
+        progressDone.addAndGet(processed);
+        Run run = new Run(name, runKey, resumeAfter, processed);
+
+        Deque<Chunk> inFlight = new ArrayDeque<>();
+        long afterId = resumeAfter;
+        while (!run.leaseLost) {
+            List<Long> ids = userRepository.findIdsAfter(afterId, partitions, partition, Limit.of(chunkSize));
+            if (ids.isEmpty()) break;
+            afterId = ids.get(ids.size() - 1);
+            inFlight.add(new Chunk(ids.get(0), afterId, ids.size(),
+                    fanOutExecutor.submit(() -> processChunk(ids, month))));
+
+            // At most parallelism chunks on the shared executor; retire finished ones in id order
+            while (inFlight.size() >= parallelism
+                    || (!inFlight.isEmpty() && inFlight.peek().result.isDone())) {
+                retire(inFlight.poll(), run);
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            retire(inFlight.poll(), run);
+        }
+
+        checkpointIfStillOwner(run, run.failed == 0 ? JobCheckpoint.COMPLETED : JobCheckpoint.RUNNING);
+        boolean completed = run.failed == 0 && !run.leaseLost;
+        log.info("[SnapshotScheduler] {} {} {}: {} users scanned, {} snapshots, {} failed chunks, {} users/s",
+                name, runKey, completed ? "done" : "incomplete", run.scanned, run.created, run.failed,
+                Math.round(run.usersPerSecond()));
+        return new RunStats(month, resumeAfter, run.scanned, run.created, run.failed, 0, completed);
+    }
+
+    /** Mutable bookkeeping for one run; only touched by the coordinating thread. */
+    private static final class Run {
+        final String name;
+        final String runKey;
+        final long started = System.nanoTime();
+        long watermark;
+        long processed;
+        long scanned;
+        int created;
+        int failed;
+        boolean leaseLost;
+
+        Run(String name, String runKey, long watermark, long processed) {
+            this.name = name;
+            this.runKey = runKey;
+            this.watermark = watermark;
+            this.processed = processed;
+        }
+
+        double usersPerSecond() {
+            return scanned / Math.max((System.nanoTime() - started) / 1e9, 1e-9);
+        }
+    }
+
+    /**
+     * Waits for the oldest chunk and folds its outcome into the run. The
+     * checkpoint only advances while every earlier chunk has succeeded, so
+     * a failed chunk is picked up again when the run resumes.
+     */
+    private void retire(Chunk chunk, Run run) {
+        run.scanned += chunk.size;
+        try {
+            run.created += chunk.result.get();
+            progressDone.addAndGet(chunk.size);
+            if (run.failed == 0) {
+                run.watermark = chunk.lastId;
+                run.processed += chunk.size;
+            }
+            checkpointIfStillOwner(run, JobCheckpoint.RUNNING);
+        } catch (ExecutionException e) {
+            run.failed++;
+            chunksFailed.increment();
+            log.error("[SnapshotScheduler] Chunk of users {}..{} failed: {}",
+                    chunk.firstId, chunk.lastId, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Snapshot job interrupted", e);
+        }
+        log.debug("[SnapshotScheduler] {} progress {}/{} users ({} users/s)",
+                run.runKey, progressDone.get(), progressTotal.get(), Math.round(run.usersPerSecond()));
+    }
+
+    /**
+     * Renews the lease and writes the checkpoint only if that succeeded.
+     * Once the lease is lost another replica may own the checkpoint row,
+     * so this run stops writing it rather than rolling its watermark back.
+     */
+    private void checkpointIfStillOwner(Run run, String status) {
+        if (run.leaseLost) return;
+        if (!leaseService.renew(run.name, leaseService.nodeId(), leaseTtl, Instant.now())) {
+            // Another replica may have taken over; stop queueing and let it resume from its checkpoint
+            run.leaseLost = true;
+            log.warn("[SnapshotScheduler] Lost lease {}, stopping", run.name);
+            return;
+        }
+        saveCheckpoint(run.name, run.runKey, run.watermark, run.processed, status);
+    }
+
+    private record Chunk(long firstId, long lastId, int size, Future<Integer> result) {}
+
+    /** One chunk, one transaction: grouped read, batched insert. Returns snapshots written. */
+    private int processChunk(List<Long> userIds, YearMonth month) {
+        return chunkTimer.record(() -> tx.execute(status -> {
+            List<PendingSnapshot> pending = snapshotRepository.findPending(userIds, month.getYear(), month.getMonthValue());
+            if (!pending.isEmpty()) {
+                OffsetDateTime now = Instant.now().atOffset(ZoneOffset.UTC);
+                jdbcTemplate.batchUpdate(INSERT_SQL, pending, pending.size(), (PreparedStatement ps, PendingSnapshot p) -> {
+                    BigDecimal saved = p.budgetAmount().subtract(p.spent()).max(BigDecimal.ZERO);
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setLong(2, p.userId());
+                    ps.setInt(3, month.getYear());
+                    ps.setInt(4, month.getMonthValue());
+                    ps.setBigDecimal(5, p.budgetAmount());
+                    ps.setBigDecimal(6, p.spent());
+                    ps.setBigDecimal(7, saved);
+                    ps.setObject(8, now);
+                });
+                dataVersionService.bumpAll(pending.stream().map(PendingSnapshot::userId).toList());
+            }
+            usersScanned.increment(userIds.size());
+            snapshotsCreated.increment(pending.size());
+            return pending.size();
+        }));
+    }
+
+    private void saveCheckpoint(String name, String runKey, long lastId, long processed, String status) {
+        checkpointRepository.save(JobCheckpoint.builder()
+                .jobName(name)
+                .runKey(runKey)
+                .lastId(lastId)
+                .processedCount(processed)
+                .status(status)
+                .updatedAt(Instant.now())
+                .build());
+    }
+
+    private double progress() {
+        long total = progressTotal.get();
+        return total == 0 ? 0 : (double) progressDone.get() / total;
+    }
+}
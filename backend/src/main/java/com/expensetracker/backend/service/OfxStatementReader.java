@@ -0,0 +1,138 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.ExpenseDtos.ExpenseRequest;
+import com.expensetracker.backend.model.PaymentMethod;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * OFX statement (SGML 1.x or XML 2.x). Each STMTTRN block becomes one row.
+ * Debits (negative TRNAMT) are imported as expenses; credits are skipped.
+ *
+ * Tokenises character by character, so files that put the whole
+ * statement on a single line are still read incrementally.
+ */
+class OfxStatementReader implements StatementReader {
+
+    private static final DateTimeFormatter OFX_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final DateTimeFormatter OFX_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final PushbackReader reader;
+    private final String defaultCategory;
+    private long transactionNumber = 0;
+
+    OfxStatementReader(Reader reader, String defaultCategory) {
+        this.reader = new PushbackReader(reader, 1);
+        this.defaultCategory = defaultCategory;
+    }
+
+    @Override
+    public Row next() throws IOException {
+        // Advance to the next <STMTTRN>
+        String tag;
+        do {
+            tag = nextTag();
+            if (tag == null) return null;
+        } while (!tag.equals("STMTTRN"));
+
+        transactionNumber++;
+        Map<String, String> values = new HashMap<>();
+        while ((tag = nextTag()) != null && !tag.equals("/STMTTRN")) {
+            if (tag.startsWith("/")) continue;
+            String text = readText();
+            if (!text.isEmpty()) values.putIfAbsent(tag, text);
+        }
+        return toRow(values);
+    }
+
+    private Row toRow(Map<String, String> values) {
+        long row = transactionNumber;
+        try {
+            String rawAmount = values.get("TRNAMT");
+            if (rawAmount == null) return Row.error(row, "Amount is required");
+            BigDecimal amount = new BigDecimal(rawAmount.replace(",", "."));
+            if (amount.signum() >= 0) return Row.skip(row, "Credit transaction");
+
+            String name = values.get("NAME");
+            String memo = values.get("MEMO");
+            return Row.ok(row, new ExpenseRequest(
+                    name != null ? name : memo,
+                    amount.negate(),
+                    defaultCategory,
+                    parseDate(values.get("DTPOSTED")),
+                    name != null ? memo : null,
+                    PaymentMethod.BANK_TRANSFER
+            ));
+        } catch (NumberFormatException e) {
+            return Row.error(row, "Invalid amount: " + values.get("TRNAMT"));
+        } catch (IllegalArgumentException e) {
+            return Row.error(row, e.getMessage());
+        }
+    }
+
+    /** OFX dates: YYYYMMDD[HHMMSS[.XXX]][[+-]h:TZ] — interpreted as UTC. */
+    private static Instant parseDate(String value) {
+        if (value == null) throw new IllegalArgumentException("Date is required");
+        try {
+            String digits = value.length() >= 14 ? value.substring(0, 14) : value.substring(0, 8);
+            if (digits.length() == 14) {
+                return LocalDateTime.parse(digits, OFX_DATE_TIME).toInstant(ZoneOffset.UTC);
+            }
+            return LocalDate.parse(digits, OFX_DATE).atStartOfDay().toInstant(ZoneOffset.UTC);
+        } catch (DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid date: " + value);
+        }
+    }
+
+    /** Skips text up to the next '<' and returns the tag name, or null at EOF. */
+    private String nextTag() throws IOException {
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            // skip
+        }
+        if (c == -1) return null;
+
+        StringBuilder name = new StringBuilder();
+        while ((c = reader.read()) != -1 && c != '>') {
+            name.append((char) c);
+        }
+        return name.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    /** Reads element text up to (not including) the next '<'. */
+    private String readText() throws IOException {
+        StringBuilder text = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '<') {
+                reader.unread(c);
+                break;
+            }
+            text.append((char) c);
+        }
+        return unescape(text.toString().trim());
+    }
+
+    private static String unescape(String s) {
+        if (s.indexOf('&') < 0) return s;
+        return s.replace("&lt;", "<").replace("&gt;", ">")
+                .replace("&quot;", "\"").replace("&apos;", "'").replace("&amp;", "&");
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
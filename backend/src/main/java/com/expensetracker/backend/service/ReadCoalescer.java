@@ -0,0 +1,109 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.security.AuthUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for the aggregate reads every open tab fires on focus.
+ *
+ * Concurrent calls for the same (user, endpoint, data version) share one
+ * computation: the first caller runs it on its own thread, the rest wait
+ * for its result. The flight is forgotten as soon as it finishes, so
+ * nothing is cached beyond the overlap.
+ *
+ * The key includes the user's data version, read by the caller before
+ * joining. A caller whose own write has committed reads the bumped
+ * version, so it can only join a flight whose leader also saw that
+ * version, i.e. started computing after the write was visible.
+ *
+ * Call it outside the service transaction, so waiting callers hold no
+ * database connection.
+ */
+@Component
+public class ReadCoalescer {
+
+    private record Key(Long userId, String endpoint, long version) {}
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final DataVersionService dataVersionService;
+    private final MeterRegistry meterRegistry;
+
+    public ReadCoalescer(DataVersionService dataVersionService, MeterRegistry meterRegistry) {
+        this.dataVersionService = dataVersionService;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("coalesce.inflight", inFlight, Map::size)
+                .description("Coalesced reads currently being computed")
+                .register(meterRegistry);
+    }
+
+    /** Coalesces per authenticated user; runs compute directly when there is none. */
+    public <T> T coalesce(String endpoint, Supplier<T> compute) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof AuthUser user)) return compute.get();
+        return coalesce(user.getId(), endpoint, compute);
+    }
+
+    public <T> T coalesce(Long userId, String endpoint, Supplier<T> compute) {
+        return coalesce(userId, endpoint, dataVersionService.current(userId), compute);
+    }
+
+    /** For callers that already read the user's version after their own writes committed. */
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(Long userId, String endpoint, long version, Supplier<T> compute) {
+        Key key = new Key(userId, endpoint, version);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+
+        if (running != null) {
+            count(endpoint, "joined");
+            return (T) await(running);
+        }
+
+        count(endpoint, "leader");
+        try {
+            T result = compute.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            // Waiters see the same failure the leader does
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private void count(String endpoint, String role) {
+        // coalescing ratio = role=joined / all
+        Counter.builder("coalesce.requests")
+                .description("Aggregate reads by whether they computed or joined an in-flight computation")
+                .tag("endpoint", endpoint)
+                .tag("role", role)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a coalesced read", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
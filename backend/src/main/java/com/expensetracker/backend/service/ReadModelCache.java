@@ -0,0 +1,161 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.security.AuthUser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-user read models (budget, savings, lending summary), kept as the
+ * serialized JSON so a hit is written out without touching Jackson.
+ *
+ * An entry is only served while it matches the user's current data
+ * version and the current UTC date. The version is bumped in the same
+ * transaction as every write, so a read after the user's own commit can
+ * never see an older model, even if an eviction is missed or a slow miss
+ * puts its result back late. The date covers daysLeft and the month
+ * rollover. Commits also evict the user's entries right away, which only
+ * frees memory early.
+ *
+ * Loaders run in one transaction that bypasses the second-level cache.
+ * The version may have been bumped by another instance, whose writes
+ * never reach this process's L2, so a cached Budget or User could be
+ * older than the version the model is stored under.
+ *
+ * Bounded by total JSON bytes and evicted after an idle period. Misses go
+ * through ReadCoalescer, so concurrent misses compute and serialize once.
+ * Hit/miss counts are cache.* metrics with cache=read_models; the held
+ * JSON size is readmodel.cache.bytes.
+ */
+@Component
+public class ReadModelCache {
+
+    private record Key(Long userId, String endpoint) {}
+
+    private record Entry(long version, LocalDate day, byte[] json) {}
+
+    private final Cache<Key, Entry> cache;
+    private final Set<String> endpoints = ConcurrentHashMap.newKeySet();
+    private final DataVersionService dataVersionService;
+    private final ReadCoalescer readCoalescer;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ReadModelCache(
+            DataVersionService dataVersionService,
+            ReadCoalescer readCoalescer,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${readmodel.cache.max-size:64MB}") DataSize maxSize,
+            @Value("${readmodel.cache.idle-timeout:30m}") Duration idleTimeout
+    ) {
+        this.dataVersionService = dataVersionService;
+        this.readCoalescer = readCoalescer;
+        this.objectMapper = objectMapper;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, Entry entry) -> entry.json().length)
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "read_models");
+        Gauge.builder("readmodel.cache.bytes", cache,
+                        c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                .description("Serialized JSON held by the read-model cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /** The current user's read model as JSON; computed (and cached) only when there is none for today's version. */
+    public byte[] json(String endpoint, Supplier<?> compute) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof AuthUser user)) return serialize(compute.get());
+        return json(user.getId(), endpoint, compute);
+    }
+
+    public byte[] json(Long userId, String endpoint, Supplier<?> compute) {
+        return json(userId, dataVersionService.current(userId), endpoint, compute);
+    }
+
+    /** For callers that already read the user's version after their own writes committed. */
+    public byte[] json(Long userId, long version, String endpoint, Supplier<?> compute) {
+        byte[] cached = cached(userId, version, endpoint);
+        return cached != null ? cached : compute(userId, version, endpoint, compute);
+    }
+
+    /** The cached JSON if it is current for this version and today, else null. Never touches the database. */
+    public byte[] cached(Long userId, long version, String endpoint) {
+        endpoints.add(endpoint);
+        Entry cached = cache.getIfPresent(new Key(userId, endpoint));
+        if (cached != null && cached.version() == version && cached.day().equals(LocalDate.now(ZoneOffset.UTC))) {
+            return cached.json();
+        }
+        return null;
+    }
+
+    /** Computes and caches the read model after cached(...) missed. */
+    public byte[] compute(Long userId, long version, String endpoint, Supplier<?> compute) {
+        endpoints.add(endpoint);
+        Key key = new Key(userId, endpoint);
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        byte[] json = readCoalescer.coalesce(userId, endpoint, version, () -> serialize(load(compute)));
+        Entry fresh = new Entry(version, today, json);
+        // A slower miss for an older version must not replace a newer entry
+        cache.asMap().merge(key, fresh, (old, put) -> old.version() > put.version() ? old : put);
+        return json;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDataVersionChanged(DataVersionChanged event) {
+        for (Long userId : event.userIds()) {
+            for (String endpoint : endpoints) {
+                cache.invalidate(new Key(userId, endpoint));
+            }
+        }
+    }
+
+    /** Runs the loader in one transaction that reads past the second-level cache. */
+    private Object load(Supplier<?> compute) {
+        return tx.execute(status -> {
+            entityManager.setProperty("jakarta.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS);
+            return compute.get();
+        });
+    }
+
+    private byte[] serialize(Object model) {
+        try {
+            return objectMapper.writeValueAsBytes(model);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize read model", e);
+        }
+    }
+}
@@ -3,55 +3,367 @@ package com.expensetracker.backend.service;
 import com.expensetracker.backend.model.Expense;
 import com.expensetracker.backend.model.RecurringExpense;
 import com.expensetracker.backend.model.RecurringFrequency;
+import com.expensetracker.backend.model.User;
 import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.ExpenseRepository.OccurrenceKey;
 import com.expensetracker.backend.repository.RecurringExpenseRepository;
+import com.expensetracker.backend.repository.RecurringExpenseRepository.DueTemplate;
+import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.service.SpendLedgerService.BucketTotal;
+import com.expensetracker.backend.service.SpendLedgerService.LedgerKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Generates expenses from due recurring templates.
+ *
+ * Templates are split into partitions by MOD(user_id, partitions) and
+ * at most recurring.parallelism partitions run at once on the shared
+ * fanOutExecutor, so one user's ledger rows are only ever written by one
+ * worker. Each partition pages its due templates by (next_due_at, id);
+ * per chunk, in one transaction: occurrences are expanded in memory,
+ * inserted with one JDBC batch, templates are advanced with one batched
+ * UPDATE guarded by their old next_due_at, and the spend ledger gets one
+ * grouped update per user.
+ *
+ * The unique (recurring_id, occurrence_date) constraint makes each
+ * scheduled occurrence exactly-once: occurrences that already exist are
+ * skipped, and a racing duplicate rolls the chunk back to be retried.
+ *
+ * Every replica fires the job; each partition is guarded by its own
+ * lease, so replicas share the partitions between them instead of
+ * repeating each other's work.
+ */
 @Component
 public class RecurringScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(RecurringScheduler.class);
 
+    // Catch-up cap per template per run (e.g. a year of monthly occurrences)
+    static final int MAX_CATCH_UP = 12;
+
+    private static final int CHUNK_ATTEMPTS = 2;
+
+    static final String JOB_NAME = "recurring-expenses";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO expenses (id, title, amount, category, date, notes, payment_method, " +
+            "user_id, recurring_id, occurrence_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ADVANCE_SQL =
+            "UPDATE recurring_expenses SET next_due_at = ?, last_generated_at = ?, updated_at = ? " +
+            "WHERE id = ? AND next_due_at = ?";
+
     private final RecurringExpenseRepository recurringRepository;
     private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final SpendLedgerService ledgerService;
+    private final DataVersionService dataVersionService;
+    private final JobLeaseService leaseService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final ExecutorService fanOutExecutor;
+    private final int partitions;
+    private final int parallelism;
+    private final int chunkSize;
+    private final Duration leaseTtl;
+
+    private final Counter templatesProcessed;
+    private final Counter expensesGenerated;
+    private final Counter chunksFailed;
+    private final Counter partitionsSkipped;
+    private final Timer runTimer;
 
     public RecurringScheduler(
             RecurringExpenseRepository recurringRepository,
-            ExpenseRepository expenseRepository
+            ExpenseRepository expenseRepository,
+            UserRepository userRepository,
+            SpendLedgerService ledgerService,
+            DataVersionService dataVersionService,
+            JobLeaseService leaseService,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("fanOutExecutor") ExecutorService fanOutExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${recurring.partitions:4}") int partitions,
+            @Value("${recurring.parallelism:2}") int parallelism,
+            @Value("${recurring.chunk-size:200}") int chunkSize,
+            @Value("${recurring.lease-ttl:10m}") Duration leaseTtl
     ) {
         this.recurringRepository = recurringRepository;
         this.expenseRepository = expenseRepository;
+        this.userRepository = userRepository;
+        this.ledgerService = ledgerService;
+        this.dataVersionService = dataVersionService;
+        this.leaseService = leaseService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.fanOutExecutor = fanOutExecutor;
+        this.partitions = partitions;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.leaseTtl = leaseTtl;
+
+        this.templatesProcessed = Counter.builder("recurring.job.templates")
+                .description("Due recurring templates processed")
+                .register(meterRegistry);
+        this.expensesGenerated = Counter.builder("recurring.job.generated")
+                .description("Expenses generated from recurring templates")
+                .register(meterRegistry);
+        this.chunksFailed = Counter.builder("recurring.job.chunks.failed")
+                .description("Chunks rolled back; retried on the next run")
+                .register(meterRegistry);
+        this.partitionsSkipped = Counter.builder("recurring.job.partitions.skipped")
+                .description("Partitions skipped because another node held the lease")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("recurring.job.run")
+                .description("Duration of a recurring generation run on this node")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public record RunStats(int templates, int generated, int failedChunks, int skippedPartitions) {
+
+        static final RunStats EMPTY = new RunStats(0, 0, 0, 0);
+
+        RunStats plus(RunStats other) {
+            return new RunStats(templates + other.templates, generated + other.generated,
+                    failedChunks + other.failedChunks, skippedPartitions + other.skippedPartitions);
+        }
     }
 
     /**
      * Runs every day at 01:00 UTC (~06:30 IST).
      */
     @Scheduled(cron = "0 0 1 * * *", zone = "UTC")
-    @Transactional
     public void generateDueExpenses() {
-        Instant now = Instant.now();
+        generateDue(Instant.now());
+    }
+
+    public RunStats generateDue(Instant runAt) {
+        // Stored timestamps are microsecond precision; "generated in this run" compares against now
+        Instant now = runAt.truncatedTo(ChronoUnit.MICROS);
         log.info("[RecurringScheduler] Running at {}", now);
+        long started = System.nanoTime();
 
-        List<RecurringExpense> due = recurringRepository.findDueForGeneration(now);
-        log.info("[RecurringScheduler] Found {} due recurring items", due.size());
+        // At most parallelism partitions on the shared executor; the next starts as one finishes
+        CompletionService<RunStats> results = new ExecutorCompletionService<>(fanOutExecutor);
+        RunStats total = RunStats.EMPTY;
+        try {
+            int submitted = 0;
+            for (; submitted < Math.min(parallelism, partitions); submitted++) {
+                int partition = submitted;
+                results.submit(() -> generatePartition(partition, now));
+            }
+            for (int done = 0; done < partitions; done++) {
+                total = total.plus(results.take().get());
+                if (submitted < partitions) {
+                    int partition = submitted++;
+                    results.submit(() -> generatePartition(partition, now));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Recurring generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Recurring generation failed", e.getCause());
+        } finally {
+            runTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+
+        templatesProcessed.increment(total.templates());
+        expensesGenerated.increment(total.generated());
+        chunksFailed.increment(total.failedChunks());
+        partitionsSkipped.increment(total.skippedPartitions());
+        log.info("[RecurringScheduler] {} templates, {} expenses generated, {} failed chunks, " +
+                        "{} partitions owned elsewhere in {} ms",
+                total.templates(), total.generated(), total.failedChunks(), total.skippedPartitions(),
+                (System.nanoTime() - started) / 1_000_000);
+        return total;
+    }
+
+    /**
+     * Pages one partition's due templates while holding its lease; a
+     * partition leased by another replica is skipped. A failed chunk is
+     * logged and left for the next run.
+     */
+    RunStats generatePartition(int partition, Instant now) {
+        String lease = JOB_NAME + ":p" + partition + "/" + partitions;
+        String owner = leaseService.nodeId();
+        if (!leaseService.tryAcquire(lease, owner, leaseTtl, now)) {
+            return new RunStats(0, 0, 0, 1);
+        }
+        long acquiredNanos = System.nanoTime();
+
+        RunStats stats = RunStats.EMPTY;
+        Instant afterDueAt = Instant.EPOCH;
+        UUID afterId = new UUID(0, 0);
+        try {
+            while (true) {
+                List<DueTemplate> chunk = recurringRepository.findDueChunk(
+                        now, partitions, partition, afterDueAt, afterId, Limit.of(chunkSize));
+                if (chunk.isEmpty()) break;
+                DueTemplate last = chunk.get(chunk.size() - 1);
+                afterDueAt = last.nextDueAt();
+                afterId = last.id();
+
+                stats = stats.plus(generateChunk(chunk, now));
 
-        for (RecurringExpense r : due) {
+                // Expired while we worked: another replica may own the partition now
+                Instant clock = now.plusNanos(System.nanoTime() - acquiredNanos);
+                if (!leaseService.renew(lease, owner, leaseTtl, clock)) {
+                    log.warn("[RecurringScheduler] Lost lease {}, stopping partition", lease);
+                    break;
+                }
+            }
+        } finally {
+            leaseService.release(lease, owner);
+        }
+        return stats;
+    }
+
+    private RunStats generateChunk(List<DueTemplate> chunk, Instant now) {
+        List<DueTemplate> templates = chunk;
+        for (int attempt = 1; ; attempt++) {
             try {
-                generateForOne(r, now);
-            } catch (Exception e) {
-                log.error("[RecurringScheduler] Failed for id {}: {}", r.getId(), e.getMessage());
+                List<DueTemplate> current = templates;
+                int generated = tx.execute(status -> writeChunk(current, now));
+                return new RunStats(current.size(), generated, 0, 0);
+            } catch (ConcurrentTemplateChange | DataIntegrityViolationException e) {
+                // Someone else touched these templates/occurrences: re-read them and try again.
+                // Edited templates come back with their new next_due_at, ones generated elsewhere drop out,
+                // and occurrences the other writer committed are skipped as existing.
+                if (attempt < CHUNK_ATTEMPTS) {
+                    templates = recurringRepository.findDueByIds(chunk.stream().map(DueTemplate::id).toList(), now);
+                    if (templates.isEmpty()) return RunStats.EMPTY;
+                    continue;
+                }
+                log.error("[RecurringScheduler] Chunk of {} templates failed: {}", templates.size(), e.getMessage());
+                return new RunStats(0, 0, 1, 0);
+            } catch (RuntimeException e) {
+                log.error("[RecurringScheduler] Chunk of {} templates failed: {}", templates.size(), e.getMessage());
+                return new RunStats(0, 0, 1, 0);
+            }
+        }
+    }
+
+    private record Occurrence(UUID id, DueTemplate template, Instant due, LocalDate day) {}
+
+    private int writeChunk(List<DueTemplate> chunk, Instant now) {
+        // Expand occurrences in memory, and where each template lands afterwards
+        List<Occurrence> occurrences = new ArrayList<>();
+        Map<UUID, Instant> nextDue = new HashMap<>();
+        LocalDate firstDay = null;
+        LocalDate lastDay = null;
+        for (DueTemplate t : chunk) {
+            Instant due = t.nextDueAt();
+            int count = 0;
+            while (!due.isAfter(now) && count < MAX_CATCH_UP) {
+                LocalDate day = LocalDate.ofInstant(due, ZoneOffset.UTC);
+                occurrences.add(new Occurrence(UUID.randomUUID(), t, due, day));
+                if (firstDay == null || day.isBefore(firstDay)) firstDay = day;
+                if (lastDay == null || day.isAfter(lastDay)) lastDay = day;
+                due = computeNextOccurrence(t.frequency(), t.dayOfMonth(), due);
+                count++;
+            }
+            nextDue.put(t.id(), due);
+        }
+
+        // Drop occurrences an earlier (crashed or racing) run already wrote
+        if (!occurrences.isEmpty()) {
+            Set<OccurrenceKey> existing = new HashSet<>(expenseRepository.findOccurrenceKeys(
+                    nextDue.keySet(), firstDay, lastDay));
+            if (!existing.isEmpty()) {
+                occurrences.removeIf(o -> existing.contains(new OccurrenceKey(o.template().id(), o.day())));
+            }
+        }
+
+        if (!occurrences.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, occurrences, occurrences.size(), (ps, o) -> {
+                DueTemplate t = o.template();
+                ps.setObject(1, o.id());
+                ps.setString(2, t.title());
+                ps.setBigDecimal(3, t.amount());
+                ps.setString(4, t.category());
+                ps.setObject(5, o.due().atOffset(ZoneOffset.UTC));
+                ps.setString(6, t.notes());
+                ps.setString(7, t.paymentMethod());
+                ps.setLong(8, t.userId());
+                ps.setObject(9, t.id());
+                ps.setObject(10, o.day());
+            });
+        }
+
+        // Advance every template in one batch; the old next_due_at guards against a concurrent edit
+        OffsetDateTime stamp = now.atOffset(ZoneOffset.UTC);
+        int[][] updated = jdbcTemplate.batchUpdate(ADVANCE_SQL, chunk, chunk.size(), (ps, t) -> {
+            ps.setObject(1, nextDue.get(t.id()).atOffset(ZoneOffset.UTC));
+            ps.setObject(2, stamp);
+            ps.setObject(3, stamp);
+            ps.setObject(4, t.id());
+            ps.setObject(5, t.nextDueAt().atOffset(ZoneOffset.UTC));
+        });
+        for (int[] batch : updated) {
+            for (int rows : batch) {
+                if (rows == 0) throw new ConcurrentTemplateChange();
             }
         }
+
+        // One grouped ledger update per user
+        Map<Long, Map<LedgerKey, BucketTotal>> deltas = new HashMap<>();
+        for (Occurrence o : occurrences) {
+            DueTemplate t = o.template();
+            deltas.computeIfAbsent(t.userId(), k -> new HashMap<>())
+                    .merge(LedgerKey.of(o.due(), t.category(), t.paymentMethod()),
+                            new BucketTotal(t.amount(), 1), BucketTotal::plus);
+        }
+        deltas.forEach((userId, byKey) -> {
+            User user = userRepository.getReferenceById(userId);
+            ledgerService.recordBatch(user, byKey);
+        });
+        // Every template in the chunk moved its next due date, even those with nothing to insert
+        dataVersionService.bumpAll(chunk.stream().map(DueTemplate::userId).toList());
+
+        return occurrences.size();
+    }
+
+    /** A template's next_due_at moved under us (edited or generated elsewhere). */
+    private static final class ConcurrentTemplateChange extends RuntimeException {
+        ConcurrentTemplateChange() {
+            super("Recurring template changed during generation");
+        }
     }
 
     /**
@@ -78,61 +390,34 @@ public class RecurringScheduler {
                 .build();
 
         expenseRepository.save(e);
+        ledgerService.recordAdded(r.getUser(), e);
 
         r.setLastGeneratedAt(now);
         r.setUpdatedAt(now);
         recurringRepository.save(r);
+        dataVersionService.bump(r.getUser().getId());
 
         log.info("[RecurringScheduler] Manual generation for template {} — created expense", r.getId());
     }
 
-    private void generateForOne(RecurringExpense r, Instant now) {
-        Instant due = r.getNextDueAt();
-        int safetyCounter = 0;
-
-        while (!due.isAfter(now) && safetyCounter < 12) {
-            createExpenseFromTemplate(r, due);
-            due = computeNextOccurrence(r, due);
-            safetyCounter++;
-        }
-
-        r.setLastGeneratedAt(now);
-        r.setNextDueAt(due);
-        r.setUpdatedAt(now);
-        recurringRepository.save(r);
-
-        log.info("[RecurringScheduler] Generated {} for template {}", safetyCounter, r.getId());
-    }
-
-    private void createExpenseFromTemplate(RecurringExpense r, Instant occurrenceDate) {
-        Expense e = Expense.builder()
-                .title(r.getTitle())
-                .amount(r.getAmount())
-                .category(r.getCategory())
-                .paymentMethod(r.getPaymentMethod())
-                .notes(r.getNotes())
-                .date(occurrenceDate)
-                .user(r.getUser())
-                .recurringId(r.getId())
-                .build();
-
-        expenseRepository.save(e);
+    static Instant computeNextOccurrence(RecurringExpense r, Instant currentDue) {
+        return computeNextOccurrence(r.getFrequency(), r.getDayOfMonth(), currentDue);
     }
 
-    private Instant computeNextOccurrence(RecurringExpense r, Instant currentDue) {
+    static Instant computeNextOccurrence(String frequency, Integer dayOfMonth, Instant currentDue) {
         LocalDate date = LocalDate.ofInstant(currentDue, ZoneOffset.UTC);
         LocalDate next;
 
-        switch (r.getFrequency()) {
+        switch (frequency) {
             case RecurringFrequency.WEEKLY -> next = date.plusWeeks(1);
             case RecurringFrequency.MONTHLY -> {
                 LocalDate nextMonth = date.plusMonths(1);
-                int targetDom = Math.min(r.getDayOfMonth(), nextMonth.lengthOfMonth());
+                int targetDom = Math.min(dayOfMonth, nextMonth.lengthOfMonth());
                 next = nextMonth.withDayOfMonth(targetDom);
             }
             case RecurringFrequency.YEARLY -> {
                 LocalDate nextYear = date.plusYears(1);
-                int targetDom = Math.min(r.getDayOfMonth(), nextYear.lengthOfMonth());
+                int targetDom = Math.min(dayOfMonth, nextYear.lengthOfMonth());
                 next = nextYear.withDayOfMonth(targetDom);
             }
             default -> throw new IllegalStateException("Unknown frequency");
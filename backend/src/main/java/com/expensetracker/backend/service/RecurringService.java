@@ -22,13 +22,16 @@ public class RecurringService {
 
     private final RecurringExpenseRepository recurringRepository;
     private final CurrentUserService currentUserService;
+    private final DataVersionService dataVersionService;
 
     public RecurringService(
             RecurringExpenseRepository recurringRepository,
-            CurrentUserService currentUserService
+            CurrentUserService currentUserService,
+            DataVersionService dataVersionService
     ) {
         this.recurringRepository = recurringRepository;
         this.currentUserService = currentUserService;
+        this.dataVersionService = dataVersionService;
     }
 
     @Transactional
@@ -62,7 +65,9 @@ public class RecurringService {
                 .updatedAt(Instant.now())
                 .build();
 
-        return toResponse(recurringRepository.save(r));
+        r = recurringRepository.save(r);
+        dataVersionService.bump(user.getId());
+        return toResponse(r);
     }
 
     @Transactional
@@ -83,7 +88,9 @@ public class RecurringService {
         r.setNextDueAt(computeNextDueAt(request, Instant.now()));
         r.setUpdatedAt(Instant.now());
 
-        return toResponse(recurringRepository.save(r));
+        r = recurringRepository.save(r);
+        dataVersionService.bump(user.getId());
+        return toResponse(r);
     }
 
     @Transactional
@@ -91,6 +98,7 @@ public class RecurringService {
         User user = currentUserService.getCurrentUser();
         RecurringExpense r = findOwnedById(id, user);
         recurringRepository.delete(r);
+        dataVersionService.bump(user.getId());
     }
 
     @Transactional
@@ -99,7 +107,9 @@ public class RecurringService {
         RecurringExpense r = findOwnedById(id, user);
         r.setActive(active);
         r.setUpdatedAt(Instant.now());
-        return toResponse(recurringRepository.save(r));
+        r = recurringRepository.save(r);
+        dataVersionService.bump(user.getId());
+        return toResponse(r);
     }
 
     private RecurringExpense findOwnedById(UUID id, User user) {
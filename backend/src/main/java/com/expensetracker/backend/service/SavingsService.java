@@ -3,19 +3,17 @@ package com.expensetracker.backend.service;
 import com.expensetracker.backend.dto.SavingsDtos.MonthlySavingItem;
 import com.expensetracker.backend.dto.SavingsDtos.SavingsResponse;
 import com.expensetracker.backend.model.Budget;
-import com.expensetracker.backend.model.Expense;
 import com.expensetracker.backend.model.MonthlySnapshot;
 import com.expensetracker.backend.model.User;
 import com.expensetracker.backend.repository.BudgetRepository;
-import com.expensetracker.backend.repository.ExpenseRepository;
 import com.expensetracker.backend.repository.MonthlySnapshotRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.Instant;
-import java.time.LocalDate;
 import java.time.Month;
+import java.time.YearMonth;
 import java.time.ZoneOffset;
 import java.util.List;
 
@@ -24,21 +22,22 @@ public class SavingsService {
 
     private final MonthlySnapshotRepository snapshotRepository;
     private final BudgetRepository budgetRepository;
-    private final ExpenseRepository expenseRepository;
+    private final SpendLedgerService ledgerService;
     private final CurrentUserService currentUserService;
 
     public SavingsService(
             MonthlySnapshotRepository snapshotRepository,
             BudgetRepository budgetRepository,
-            ExpenseRepository expenseRepository,
+            SpendLedgerService ledgerService,
             CurrentUserService currentUserService
     ) {
         this.snapshotRepository = snapshotRepository;
         this.budgetRepository = budgetRepository;
-        this.expenseRepository = expenseRepository;
+        this.ledgerService = ledgerService;
         this.currentUserService = currentUserService;
     }
 
+    @Timed(value = "service.savings.get", histogram = true)
     @Transactional
     public SavingsResponse get() {
         User user = currentUserService.getCurrentUser();
@@ -71,15 +70,7 @@ public class SavingsService {
     }
 
     private BigDecimal computeSpentThisMonth(Long userId) {
-        LocalDate now = LocalDate.now(ZoneOffset.UTC);
-        Instant monthStart = now.withDayOfMonth(1).atStartOfDay().toInstant(ZoneOffset.UTC);
-        Instant monthEnd = now.plusMonths(1).withDayOfMonth(1).atStartOfDay().toInstant(ZoneOffset.UTC);
-
-        List<Expense> expenses = expenseRepository.findByUserId(userId);
-        return expenses.stream()
-                .filter(e -> !e.getDate().isBefore(monthStart) && e.getDate().isBefore(monthEnd))
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return ledgerService.spentInMonth(userId, YearMonth.now(ZoneOffset.UTC));
     }
 
     private MonthlySavingItem toItem(MonthlySnapshot s) {
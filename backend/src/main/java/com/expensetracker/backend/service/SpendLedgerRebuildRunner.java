@@ -0,0 +1,76 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.service.SpendLedgerService.Drift;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * One-off maintenance command that recomputes monthly_spend from expenses.
+ *
+ * Run with:
+ *   java -jar app.jar --ledger.rebuild=true [--ledger.rebuild.dry-run=true]
+ *
+ * Every drifted bucket is logged; the process exits when done
+ * (exit code 0 when clean, 1 when drift was found).
+ */
+@Component
+@ConditionalOnProperty(name = "ledger.rebuild", havingValue = "true")
+public class SpendLedgerRebuildRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SpendLedgerRebuildRunner.class);
+
+    private final UserRepository userRepository;
+    private final SpendLedgerService ledgerService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${ledger.rebuild.dry-run:false}")
+    private boolean dryRun;
+
+    public SpendLedgerRebuildRunner(
+            UserRepository userRepository,
+            SpendLedgerService ledgerService,
+            ConfigurableApplicationContext context
+    ) {
+        this.userRepository = userRepository;
+        this.ledgerService = ledgerService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Long> userIds = userRepository.findAllIds();
+        log.info("[LedgerRebuild] Checking {} users (dryRun={})", userIds.size(), dryRun);
+
+        int driftedUsers = 0;
+        int driftedBuckets = 0;
+        for (Long userId : userIds) {
+            // One transaction per user keeps connections short-lived
+            List<Drift> drifts = ledgerService.rebuildUser(userId, !dryRun);
+            if (drifts.isEmpty()) continue;
+
+            driftedUsers++;
+            driftedBuckets += drifts.size();
+            for (Drift d : drifts) {
+                log.warn("[LedgerRebuild] Drift user {} {}/{} {} {}: stored {} expected {}",
+                        d.userId(), d.key().month(), d.key().year(), d.key().category(),
+                        d.key().paymentMethod(), d.stored(), d.expected());
+            }
+        }
+
+        log.info("[LedgerRebuild] Done: {} users, {} drifted users, {} drifted buckets{}",
+                userIds.size(), driftedUsers, driftedBuckets, dryRun ? " (not repaired)" : " (repaired)");
+
+        int exitCode = driftedBuckets == 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
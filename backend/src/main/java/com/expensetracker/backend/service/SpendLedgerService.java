@@ -0,0 +1,240 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.config.DatabaseDialect;
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.MonthlySpend;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.ExpenseRepository.LedgerRow;
+import com.expensetracker.backend.repository.MonthlySpendRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintains the per-user monthly spend rollup (monthly_spend).
+ *
+ * Every expense write calls in here inside its own transaction, so the
+ * rollup commits or rolls back together with the expense row. Reads of
+ * "spent this month" then become a handful of indexed row lookups instead
+ * of a scan over the month's expenses.
+ *
+ * A bucket's first write creates it empty with an insert that skips an
+ * existing row (ON CONFLICT DO NOTHING; MERGE on H2) and then applies the
+ * delta like any other write. Both run in the caller's transaction on its
+ * connection, so two concurrent first writes to one bucket both succeed:
+ * the second waits for the first to commit, then updates the row.
+ */
+@Service
+public class SpendLedgerService {
+
+    private static final String INSERT_EMPTY_POSTGRES_SQL =
+            "INSERT INTO monthly_spend (id, user_id, spend_year, spend_month, category, payment_method, " +
+            "amount, expense_count, updated_at) VALUES (?, ?, ?, ?, ?, ?, 0, 0, ?) " +
+            "ON CONFLICT (user_id, spend_year, spend_month, category, payment_method) DO NOTHING";
+
+    private static final String INSERT_EMPTY_H2_SQL =
+            "MERGE INTO monthly_spend t USING (SELECT CAST(? AS UUID) id, CAST(? AS BIGINT) user_id, " +
+            "CAST(? AS INT) spend_year, CAST(? AS INT) spend_month, CAST(? AS VARCHAR) category, " +
+            "CAST(? AS VARCHAR) payment_method, CAST(? AS TIMESTAMP WITH TIME ZONE) updated_at) s " +
+            "ON t.user_id = s.user_id AND t.spend_year = s.spend_year AND t.spend_month = s.spend_month " +
+            "AND t.category = s.category AND t.payment_method = s.payment_method " +
+            "WHEN NOT MATCHED THEN INSERT (id, user_id, spend_year, spend_month, category, payment_method, " +
+            "amount, expense_count, updated_at) VALUES (s.id, s.user_id, s.spend_year, s.spend_month, " +
+            "s.category, s.payment_method, 0, 0, s.updated_at)";
+
+    private final MonthlySpendRepository spendRepository;
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertEmptySql;
+
+    public SpendLedgerService(
+            MonthlySpendRepository spendRepository,
+            ExpenseRepository expenseRepository,
+            UserRepository userRepository,
+            JdbcTemplate jdbcTemplate,
+            DatabaseDialect dialect
+    ) {
+        this.spendRepository = spendRepository;
+        this.expenseRepository = expenseRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertEmptySql = dialect.choose(INSERT_EMPTY_POSTGRES_SQL, INSERT_EMPTY_H2_SQL);
+    }
+
+    // ── Writes (always joined to the caller's transaction) ──
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAdded(User user, Expense e) {
+        apply(user, keyOf(e), e.getAmount(), 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRemoved(User user, Expense e) {
+        apply(user, keyOf(e), e.getAmount().negate(), -1);
+    }
+
+    /**
+     * Moves an edited expense from its old bucket/amount to the new one.
+     * When the bucket is unchanged only the amount difference is applied.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanged(User user, LedgerKey oldKey, BigDecimal oldAmount, Expense updated) {
+        LedgerKey newKey = keyOf(updated);
+        if (oldKey.equals(newKey)) {
+            BigDecimal delta = updated.getAmount().subtract(oldAmount);
+            if (delta.signum() != 0) {
+                apply(user, newKey, delta, 0);
+            }
+            return;
+        }
+        apply(user, oldKey, oldAmount.negate(), -1);
+        apply(user, newKey, updated.getAmount(), 1);
+    }
+
+    /**
+     * Adds pre-aggregated deltas, e.g. from a batch insert.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBatch(User user, Map<LedgerKey, BucketTotal> deltas) {
+        deltas.forEach((key, total) -> apply(user, key, total.amount(), total.count()));
+    }
+
+    // ── Reads ──────────────────────────────────────────
+
+    @Transactional(readOnly = true)
+    public BigDecimal spentInMonth(Long userId, YearMonth month) {
+        return spendRepository.sumByUserIdAndYearAndMonth(
+                userId, month.getYear(), month.getMonthValue());
+    }
+
+    // ── Rebuild / repair ───────────────────────────────
+
+    /**
+     * Recomputes one user's rollup from the expenses table and reports
+     * every bucket that disagreed. With {@code repair} the stored rows are
+     * corrected in place; otherwise the method only reports.
+     */
+    @Transactional
+    public List<Drift> rebuildUser(Long userId, boolean repair) {
+        Map<LedgerKey, BucketTotal> expected = new HashMap<>();
+        for (LedgerRow row : expenseRepository.findLedgerRowsByUserId(userId)) {
+            LedgerKey key = LedgerKey.of(row.date(), row.category(), row.paymentMethod());
+            expected.merge(key, new BucketTotal(row.amount(), 1), BucketTotal::plus);
+        }
+
+        List<Drift> drifts = new ArrayList<>();
+        Instant now = Instant.now();
+
+        for (MonthlySpend stored : spendRepository.findAllByUserId(userId)) {
+            LedgerKey key = new LedgerKey(stored.getYear(), stored.getMonth(),
+                    stored.getCategory(), stored.getPaymentMethod());
+            BucketTotal want = expected.remove(key);
+            if (want == null) want = BucketTotal.EMPTY;
+
+            boolean matches = stored.getAmount().compareTo(want.amount()) == 0
+                    && stored.getExpenseCount() == want.count();
+            if (matches) continue;
+
+            drifts.add(new Drift(userId, key, stored.getAmount(), want.amount()));
+            if (!repair) continue;
+
+            if (want.count() == 0) {
+                spendRepository.delete(stored);
+            } else {
+                stored.setAmount(want.amount());
+                stored.setExpenseCount(want.count());
+                stored.setUpdatedAt(now);
+            }
+        }
+
+        // Buckets that have expenses but no stored row at all
+        User user = repair && !expected.isEmpty() ? userRepository.getReferenceById(userId) : null;
+        expected.forEach((key, want) -> {
+            drifts.add(new Drift(userId, key, BigDecimal.ZERO, want.amount()));
+            if (repair) {
+                spendRepository.save(newBucket(user, key, want.amount(), want.count(), now));
+            }
+        });
+
+        return drifts;
+    }
+
+    // ── Helpers ──────────────────────────────────────
+
+    private void apply(User user, LedgerKey key, BigDecimal delta, int countDelta) {
+        Instant now = Instant.now();
+        int updated = spendRepository.applyDelta(
+                user.getId(), key.year(), key.month(), key.category(), key.paymentMethod(),
+                delta, countDelta, now);
+        if (updated == 0) {
+            // First expense in this bucket: create it (or find it created concurrently), then apply
+            insertEmptyIfAbsent(user.getId(), key, now);
+            updated = spendRepository.applyDelta(
+                    user.getId(), key.year(), key.month(), key.category(), key.paymentMethod(),
+                    delta, countDelta, now);
+            if (updated == 0) {
+                throw new IllegalStateException("Spend bucket " + key + " missing after insert");
+            }
+        }
+    }
+
+    private void insertEmptyIfAbsent(Long userId, LedgerKey key, Instant now) {
+        try {
+            jdbcTemplate.update(insertEmptySql, UUID.randomUUID(), userId, key.year(), key.month(),
+                    key.category(), key.paymentMethod(), now.atOffset(ZoneOffset.UTC));
+        } catch (DuplicateKeyException e) {
+            // H2's MERGE can still lose a race to a concurrent insert; the failed
+            // statement leaves the transaction usable there, and the row now exists
+        }
+    }
+
+    private MonthlySpend newBucket(User user, LedgerKey key, BigDecimal amount, int count, Instant now) {
+        return MonthlySpend.builder()
+                .user(user)
+                .year(key.year())
+                .month(key.month())
+                .category(key.category())
+                .paymentMethod(key.paymentMethod())
+                .amount(amount)
+                .expenseCount(count)
+                .updatedAt(now)
+                .build();
+    }
+
+    public static LedgerKey keyOf(Expense e) {
+        return LedgerKey.of(e.getDate(), e.getCategory(), e.getPaymentMethod());
+    }
+
+    /** Rollup bucket: UTC year/month + category + payment method. */
+    public record LedgerKey(int year, int month, String category, String paymentMethod) {
+        public static LedgerKey of(Instant date, String category, String paymentMethod) {
+            YearMonth ym = YearMonth.from(date.atZone(ZoneOffset.UTC));
+            return new LedgerKey(ym.getYear(), ym.getMonthValue(), category, paymentMethod);
+        }
+    }
+
+    public record BucketTotal(BigDecimal amount, int count) {
+        static final BucketTotal EMPTY = new BucketTotal(BigDecimal.ZERO, 0);
+
+        public BucketTotal plus(BucketTotal other) {
+            return new BucketTotal(amount.add(other.amount), count + other.count);
+        }
+    }
+
+    public record Drift(Long userId, LedgerKey key, BigDecimal stored, BigDecimal expected) {}
+}
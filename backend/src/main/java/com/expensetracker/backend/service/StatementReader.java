@@ -0,0 +1,35 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.ExpenseDtos.ExpenseRequest;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pull-based reader over an uploaded bank statement.
+ * Implementations read the stream incrementally and never hold the
+ * whole file in memory.
+ */
+interface StatementReader extends Closeable {
+
+    /** Next data row, or null at end of input. */
+    Row next() throws IOException;
+
+    /**
+     * One statement entry. Exactly one of request / error / skipReason is set.
+     */
+    record Row(long number, ExpenseRequest request, String error, String skipReason) {
+
+        static Row ok(long number, ExpenseRequest request) {
+            return new Row(number, request, null, null);
+        }
+
+        static Row error(long number, String error) {
+            return new Row(number, null, error, null);
+        }
+
+        static Row skip(long number, String reason) {
+            return new Row(number, null, null, reason);
+        }
+    }
+}
@@ -1,13 +1,25 @@
 package com.expensetracker.backend;
 
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -21,6 +33,24 @@ class AuthIntegrationTests {
     @Autowired
     private MockMvc mockMvc;
 
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private double principalCacheGets(String result) {
+        return cacheGets("principals", result);
+    }
+
+    private double cacheGets(String cache, String result) {
+        return meterRegistry.find("cache.gets")
+                .tag("cache", cache)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
     private String registerAndGetToken(
             String firstName, String lastName,
             String email, String password
@@ -86,7 +116,8 @@ class AuthIntegrationTests {
                                 """))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.firstName").value("Alice"))
-                .andExpect(jsonPath("$.lastName").value("Smith"));
+                .andExpect(jsonPath("$.lastName").value("Smith"))
+                .andExpect(jsonPath("$.bootstrap").doesNotExist());
 
         // Fetch /me endpoint
         mockMvc.perform(get("/api/auth/me")
@@ -97,6 +128,27 @@ class AuthIntegrationTests {
                 .andExpect(jsonPath("$.lastName").value("Smith"));
     }
 
+    @Test
+    void loginLooksTheUserUpByEmailOnce() throws Exception {
+        registerAndGetToken("Once", "User", "once.user@example.com", "OncePass123");
+        clearInvocations(userRepository);
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "email": "once.user@example.com",
+                                  "password": "OncePass123"
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isString())
+                .andExpect(jsonPath("$.firstName").value("Once"));
+
+        // Only the authentication provider resolves the email; the token comes from its principal
+        verify(userRepository, times(1)).findByEmail(anyString());
+    }
+
     @Test
     void wrongCredentialsReturn401() throws Exception {
         mockMvc.perform(post("/api/auth/login")
@@ -115,4 +167,112 @@ class AuthIntegrationTests {
         mockMvc.perform(get("/api/auth/me"))
                 .andExpect(status().isUnauthorized());
     }
-}
\ No newline at end of file
+
+    @Test
+    void repeatRequestsResolvePrincipalFromCache() throws Exception {
+        String token = registerAndGetToken("Cache", "User", "cache.user@example.com", "CachePass123");
+        double hitsBefore = principalCacheGets("hit");
+        double missesBefore = principalCacheGets("miss");
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/expenses")
+                            .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+
+        assertThat(principalCacheGets("miss") - missesBefore).isEqualTo(1);
+        assertThat(principalCacheGets("hit") - hitsBefore).isEqualTo(2);
+    }
+
+    @Test
+    void passwordChangeAndDeletionEvictCachedPrincipal() throws Exception {
+        String token = registerAndGetToken("Evict", "User", "evict.user@example.com", "EvictPass123");
+        mockMvc.perform(get("/api/expenses")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        User user = userRepository.findByEmail("evict.user@example.com").orElseThrow();
+        user.setPassword("{noop}changed");
+        userRepository.save(user);
+
+        double missesBefore = principalCacheGets("miss");
+        mockMvc.perform(get("/api/expenses")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        assertThat(principalCacheGets("miss") - missesBefore).isEqualTo(1);
+
+        userRepository.delete(userRepository.findByEmail("evict.user@example.com").orElseThrow());
+
+        mockMvc.perform(get("/api/expenses")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tamperedTokenIsRejectedEvenAfterTheGenuineOneWasVerified() throws Exception {
+        String token = registerAndGetToken("Tamper", "User", "tamper.user@example.com", "TamperPass123");
+        mockMvc.perform(get("/api/expenses")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+        mockMvc.perform(get("/api/expenses")
+                        .header("Authorization", "Bearer " + tampered))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void loginWithBootstrapReturnsFirstPaintDataAndWarmsCaches() throws Exception {
+        registerAndGetToken("Boot", "User", "boot.user@example.com", "BootPass123");
+
+        String response = mockMvc.perform(post("/api/auth/login?bootstrap=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "email": "boot.user@example.com",
+                                  "password": "BootPass123"
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isString())
+                .andExpect(jsonPath("$.bootstrap.preferences.currency").value("INR"))
+                .andExpect(jsonPath("$.bootstrap.budget.status").value("disabled"))
+                .andExpect(jsonPath("$.bootstrap.recentExpenses.items", empty()))
+                .andExpect(jsonPath("$.bootstrap.unavailable", empty()))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String token = response.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+
+        double principalMisses = principalCacheGets("miss");
+        double readModelHits = cacheGets("read_models", "hit");
+        mockMvc.perform(get("/api/budget")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("disabled"));
+
+        // Both were filled by the bootstrap
+        assertThat(principalCacheGets("miss") - principalMisses).isZero();
+        assertThat(cacheGets("read_models", "hit") - readModelHits).isEqualTo(1);
+    }
+
+    @Test
+    void meWithBootstrapIncludesRecentExpenses() throws Exception {
+        String token = registerAndGetToken("Me", "Boot", "me.boot@example.com", "MeBootPass123");
+        mockMvc.perform(post("/api/expenses")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"Coffee","amount":4,"category":"Food","date":"%s"}
+                                """.formatted(Instant.now())))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/auth/me?bootstrap=true")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("me.boot@example.com"))
+                .andExpect(jsonPath("$.bootstrap.preferences.theme").value("neon-noir"))
+                .andExpect(jsonPath("$.bootstrap.recentExpenses.items[0].title").value("Coffee"));
+    }
+}
@@ -117,4 +117,70 @@ class BudgetIntegrationTests {
                 .andExpect(jsonPath("$.currentMonthSpent").value(800))
                 .andExpect(jsonPath("$.currentMonthRemaining").value(200));
     }
-}
\ No newline at end of file
+
+    @Test
+    void budgetSpentCountsOnlyCurrentMonthAndOutstandingLent() throws Exception {
+        String token = registerAndGetToken();
+
+        mockMvc.perform(put("/api/budget")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "enabled": true,
+                                  "monthlyAmount": 1000
+                                }
+                                """))
+                .andExpect(status().isOk());
+
+        // Last month's expense must not count towards this month
+        mockMvc.perform(post("/api/expenses")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                {
+                                  "title": "Old",
+                                  "amount": 900,
+                                  "category": "Food",
+                                  "date": "%s"
+                                }
+                                """, java.time.Instant.now().minus(java.time.Duration.ofDays(40)))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/expenses")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                {
+                                  "title": "Now",
+                                  "amount": 100,
+                                  "category": "Food",
+                                  "date": "%s"
+                                }
+                                """, java.time.Instant.now())))
+                .andExpect(status().isOk());
+
+        // Lent 300 this month → counts as money out; borrowed does not
+        mockMvc.perform(post("/api/lending")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                {"type":"LENT","personName":"John","originalAmount":300,"date":"%s"}
+                                """, java.time.Instant.now())))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/lending")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                {"type":"BORROWED","personName":"Alice","originalAmount":200,"date":"%s"}
+                                """, java.time.Instant.now())))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/budget")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currentMonthSpent").value(400))
+                .andExpect(jsonPath("$.currentMonthRemaining").value(600));
+    }
+}
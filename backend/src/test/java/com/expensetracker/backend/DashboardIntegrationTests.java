@@ -0,0 +1,172 @@
+package com.expensetracker.backend;
+
+import com.expensetracker.backend.dto.SavingsDtos.SavingsResponse;
+import com.expensetracker.backend.service.SavingsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:dashboard_test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "dashboard.section-timeout=3s",
+        "spring.datasource.hikari.maximum-pool-size=5"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DashboardIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // Stands in for a slow aggregate; the other sections are real
+    @MockitoBean
+    private SavingsService savingsService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private String registerAndGetToken() throws Exception {
+        return registerAndGetToken("dashboard-test@example.com");
+    }
+
+    private String registerAndGetToken(String email) throws Exception {
+        String response = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "firstName": "Dash",
+                                  "lastName": "Tester",
+                                  "email": "%s",
+                                  "password": "TestPass123"
+                                }
+                                """.formatted(email)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return response.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+    }
+
+    private void seed(String token) throws Exception {
+        mockMvc.perform(put("/api/budget")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"enabled\":true,\"monthlyAmount\":1000}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/expenses")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"Groceries","amount":120,"category":"Food","date":"%s"}
+                                """.formatted(Instant.now())))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/lending")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"type":"BORROWED","personName":"Kim","originalAmount":300,"date":"%s"}
+                                """.formatted(Instant.now())))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void dashboardCombinesAllSectionsInOneResponse() throws Exception {
+        when(savingsService.get()).thenReturn(new SavingsResponse(new BigDecimal("42"), BigDecimal.ZERO, List.of()));
+        String token = registerAndGetToken();
+        seed(token);
+
+        mockMvc.perform(get("/api/dashboard").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.budget.monthlyAmount").value(1000))
+                .andExpect(jsonPath("$.budget.currentMonthSpent").value(120))
+                .andExpect(jsonPath("$.savings.totalSaved").value(42))
+                .andExpect(jsonPath("$.lendingSummary.youOwe").value(300))
+                .andExpect(jsonPath("$.lendingSummary.knownPersons", empty()))
+                .andExpect(jsonPath("$.recentExpenses.items[0].title").value("Groceries"))
+                .andExpect(jsonPath("$.unavailable", empty()));
+    }
+
+    @Test
+    void slowSectionIsLeftOutInsteadOfDelayingTheRest() throws Exception {
+        when(savingsService.get()).thenAnswer(invocation -> {
+            Thread.sleep(30_000);
+            return null;
+        });
+        String token = registerAndGetToken();
+        seed(token);
+
+        long start = System.nanoTime();
+        mockMvc.perform(get("/api/dashboard").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.savings").doesNotExist())
+                .andExpect(jsonPath("$.budget.currentMonthSpent").value(120))
+                .andExpect(jsonPath("$.recentExpenses.items[0].title").value("Groceries"))
+                .andExpect(jsonPath("$.unavailable", contains("savings")));
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void concurrentColdDashboardsGetEverySectionOnTheRealPoolSize() throws Exception {
+        when(savingsService.get()).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return new SavingsResponse(BigDecimal.ONE, BigDecimal.ZERO, List.of());
+        });
+        List<String> tokens = List.of(registerAndGetToken("dash-a@example.com"), registerAndGetToken("dash-b@example.com"));
+        for (String token : tokens) seed(token);
+
+        // A batch job holds two of the five connections throughout
+        List<Connection> held = new ArrayList<>();
+        ExecutorService clients = Executors.newFixedThreadPool(tokens.size());
+        try {
+            held.add(dataSource.getConnection());
+            held.add(dataSource.getConnection());
+
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<MvcResult>> results = new ArrayList<>();
+            for (String token : tokens) {
+                results.add(clients.submit(() -> {
+                    go.await();
+                    return mockMvc.perform(get("/api/dashboard").header("Authorization", "Bearer " + token))
+                            .andReturn();
+                }));
+            }
+            go.countDown();
+
+            for (Future<MvcResult> result : results) {
+                String body = result.get().getResponse().getContentAsString();
+                assertThat(body).contains("\"unavailable\":[]").contains("\"totalSaved\":1");
+            }
+        } finally {
+            clients.shutdownNow();
+            for (Connection connection : held) connection.close();
+        }
+    }
+}
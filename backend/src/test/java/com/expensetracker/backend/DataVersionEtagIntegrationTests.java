@@ -0,0 +1,122 @@
+package com.expensetracker.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DataVersionEtagIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private String registerAndGetToken(String email) throws Exception {
+        String response = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "firstName": "Etag",
+                                  "lastName": "Tester",
+                                  "email": "%s",
+                                  "password": "TestPass123"
+                                }
+                                """.formatted(email)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return response.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+    }
+
+    private String etag(String path, String token) throws Exception {
+        return mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+    }
+
+    @Test
+    void unchangedDataAnswers304UntilAWrite() throws Exception {
+        String token = registerAndGetToken("etag-user@example.com");
+        String before = etag("/api/expenses", token);
+        assertThat(before).startsWith("\"u").endsWith("\"");
+
+        mockMvc.perform(get("/api/expenses")
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(post("/api/expenses")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"Coffee","amount":3.5,"category":"Food","date":"2024-05-01T10:00:00Z"}
+                                """))
+                .andExpect(status().isOk());
+
+        String after = mockMvc.perform(get("/api/expenses")
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Coffee")))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertThat(after).isNotEqualTo(before);
+    }
+
+    @Test
+    void writesToAnyDomainChangeTheSharedVersion() throws Exception {
+        String token = registerAndGetToken("etag-domains@example.com");
+        String initial = etag("/api/lending/summary", token);
+
+        mockMvc.perform(put("/api/budget")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"enabled\":true,\"monthlyAmount\":1500}"))
+                .andExpect(status().isOk());
+        String afterBudget = etag("/api/lending/summary", token);
+        assertThat(afterBudget).isNotEqualTo(initial);
+
+        mockMvc.perform(post("/api/lending")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"type":"LENT","personName":"Sam","originalAmount":50,"date":"2024-05-01T10:00:00Z"}
+                                """))
+                .andExpect(status().isOk());
+        assertThat(etag("/api/budget", token)).isNotEqualTo(afterBudget);
+    }
+
+    @Test
+    void anotherUsersTagNeverMatches() throws Exception {
+        String alice = registerAndGetToken("etag-alice@example.com");
+        String bob = registerAndGetToken("etag-bob@example.com");
+        String aliceTag = etag("/api/recurring", alice);
+
+        // Both are at version 0, but the tag is scoped to the user
+        mockMvc.perform(get("/api/recurring")
+                        .header("Authorization", "Bearer " + bob)
+                        .header(HttpHeaders.IF_NONE_MATCH, aliceTag))
+                .andExpect(status().isOk());
+    }
+}
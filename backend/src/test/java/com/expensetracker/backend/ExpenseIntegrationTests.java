@@ -0,0 +1,382 @@
+package com.expensetracker.backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ExpenseIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String registerAndGetToken() throws Exception {
+        String response = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "firstName": "Expense",
+                                  "lastName": "Tester",
+                                  "email": "expense-test@example.com",
+                                  "password": "TestPass123"
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        return response.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+    }
+
+    private void addExpense(String token, String title, int amount, String category, Instant date) throws Exception {
+        mockMvc.perform(post("/api/expenses")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                {
+                                  "title": "%s",
+                                  "amount": %d,
+                                  "category": "%s",
+                                  "date": "%s"
+                                }
+                                """, title, amount, category, date)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void legacyListStillReturnsArray() throws Exception {
+        String token = registerAndGetToken();
+        addExpense(token, "Coffee", 80, "Food", Instant.now());
+
+        mockMvc.perform(get("/api/expenses")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$[0].title").value("Coffee"));
+    }
+
+    @Test
+    void keysetPagesWalkEveryRowOnceNewestFirst() throws Exception {
+        String token = registerAndGetToken();
+        Instant base = Instant.parse("2026-03-10T10:00:00Z");
+
+        // Two rows share a timestamp so the id tie-breaker is exercised
+        addExpense(token, "e1", 10, "Food", base.minus(Duration.ofDays(4)));
+        addExpense(token, "e2", 20, "Food", base.minus(Duration.ofDays(3)));
+        addExpense(token, "e3", 30, "Travel", base.minus(Duration.ofDays(2)));
+        addExpense(token, "e4", 40, "Food", base.minus(Duration.ofDays(2)));
+        addExpense(token, "e5", 50, "Food", base);
+
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/api/expenses")
+                    .header("Authorization", "Bearer " + token)
+                    .param("limit", "2");
+            if (cursor != null) request.param("cursor", cursor);
+
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            page.get("items").forEach(item -> titles.add(item.get("title").asText()));
+            cursor = page.get("hasMore").asBoolean() ? page.get("nextCursor").asText() : null;
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(titles).hasSize(5).doesNotHaveDuplicates();
+        assertThat(titles.get(0)).isEqualTo("e5");
+        assertThat(titles.subList(1, 3)).containsExactlyInAnyOrder("e3", "e4");
+        assertThat(titles.subList(3, 5)).containsExactly("e2", "e1");
+    }
+
+    @Test
+    void filtersNarrowThePage() throws Exception {
+        String token = registerAndGetToken();
+        Instant now = Instant.now();
+        addExpense(token, "Lunch", 120, "Food", now);
+        addExpense(token, "Cab", 300, "Travel", now);
+        addExpense(token, "Dinner", 900, "Food", now);
+
+        mockMvc.perform(get("/api/expenses")
+                        .header("Authorization", "Bearer " + token)
+                        .param("limit", "10")
+                        .param("category", "Food")
+                        .param("minAmount", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Dinner"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        mockMvc.perform(get("/api/expenses")
+                        .header("Authorization", "Bearer " + token)
+                        .param("limit", "10")
+                        .param("recurringOnly", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        String token = registerAndGetToken();
+
+        mockMvc.perform(get("/api/expenses")
+                        .header("Authorization", "Bearer " + token)
+                        .param("limit", "10")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String export(String token, String query) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/expenses/export?" + query)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", org.hamcrest.Matchers.startsWith("attachment")))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    // LENT 500 to John, 100 of it paid back; returns the lending id
+    private String addLendingWithPayment(String token) throws Exception {
+        String lending = mockMvc.perform(post("/api/lending")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                {"type":"LENT","personName":"John","originalAmount":500,"date":"%s"}
+                                """, Instant.now())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String lendingId = lending.replaceAll(".*\"id\":\"([^\"]+)\".*", "$1");
+
+        mockMvc.perform(post("/api/lending/" + lendingId + "/payment")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                {"amount":100,"date":"%s"}
+                                """, Instant.now())))
+                .andExpect(status().isOk());
+        return lendingId;
+    }
+
+    @Test
+    void exportStreamsCsvWithEscaping() throws Exception {
+        String token = registerAndGetToken();
+        addExpense(token, "Dinner, with \\\"friends\\\"", 900, "Food", Instant.now());
+        addExpense(token, "Cab", 300, "Travel", Instant.now());
+
+        String csv = export(token, "format=csv");
+        String[] lines = csv.split("\n");
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("record_type,id,parent_id,date,title");
+        assertThat(csv).contains("\"Dinner, with \"\"friends\"\"\"");
+        assertThat(csv).contains(",Cab,300");
+    }
+
+    @Test
+    void exportNdjsonIncludesLendingsAndPayments() throws Exception {
+        String token = registerAndGetToken();
+        addExpense(token, "Lunch", 120, "Food", Instant.now());
+
+        String lendingId = addLendingWithPayment(token);
+
+        String ndjson = export(token, "format=ndjson&includeLendings=true");
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : ndjson.split("\n")) rows.add(objectMapper.readTree(line));
+
+        assertThat(rows).extracting(r -> r.get("type").asText())
+                .containsExactly("expense", "lending", "payment");
+        assertThat(rows.get(2).get("lendingId").asText()).isEqualTo(lendingId);
+    }
+
+    @Test
+    void exportCsvKeepsLendingTypeAndReturnedAmount() throws Exception {
+        String token = registerAndGetToken();
+        String lendingId = addLendingWithPayment(token);
+
+        String csv = export(token, "format=csv&includeLendings=true");
+        String lendingLine = csv.lines().filter(l -> l.startsWith("lending,")).findFirst().orElseThrow();
+        String[] fields = lendingLine.split(",", -1);
+
+        assertThat(csv.lines().findFirst().orElseThrow()).endsWith(",notes,lending_type,returned_amount");
+        assertThat(fields[1]).isEqualTo(lendingId);
+        assertThat(fields[6]).isEmpty();
+        assertThat(fields[10]).isEqualTo("LENT");
+        assertThat(new BigDecimal(fields[11])).isEqualByComparingTo("100");
+    }
+
+    @Test
+    void exportRejectsUnknownFormat() throws Exception {
+        String token = registerAndGetToken();
+
+        mockMvc.perform(get("/api/expenses/export?format=xml")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void csvImportReportsRowErrorsAndSkipsDuplicates() throws Exception {
+        String token = registerAndGetToken();
+        addExpense(token, "Rent", 15000, "Housing", Instant.parse("2026-03-01T00:00:00Z"));
+
+        String csv = """
+                date,title,amount,category,paymentMethod,notes
+                2026-03-01,Rent,15000.00,Housing,,
+                2026-03-02,"Groceries, weekly",1250.50,Food,debit_upi,"said ""thanks""\"
+                2026-03-02,Coffee,80,Food,,
+                2026-03-02,Coffee,80,Food,,
+                not-a-date,Broken,10,Food,,
+                2026-03-03,Refund,-20,Food,,
+                """;
+
+        mockMvc.perform(multipart("/api/expenses/import")
+                        .file(new MockMultipartFile("file", "march.csv", "text/csv", csv.getBytes()))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(6))
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.duplicates").value(1))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors[0].row").value(6))
+                .andExpect(jsonPath("$.errors[0].message").value("Invalid date: not-a-date"))
+                .andExpect(jsonPath("$.errors[1].message").value("Amount must be positive"));
+
+        mockMvc.perform(get("/api/expenses")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[?(@.title == 'Groceries, weekly')].paymentMethod").value("DEBIT_UPI"))
+                .andExpect(jsonPath("$[?(@.title == 'Groceries, weekly')].notes").value("said \"thanks\""));
+
+        // Re-importing the same statement is a no-op, including the repeated coffee
+        mockMvc.perform(multipart("/api/expenses/import")
+                        .file(new MockMultipartFile("file", "march.csv", "text/csv", csv.getBytes()))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.imported").value(0))
+                .andExpect(jsonPath("$.duplicates").value(4));
+    }
+
+    @Test
+    void csvImportAcceptsAnyUtcOffset() throws Exception {
+        String token = registerAndGetToken();
+
+        String csv = """
+                date,title,amount,category
+                2026-03-01T10:00:00-05:00,Taxi,300,Travel
+                2026-03-01T10:00:00+05:30,Tea,40,Food
+                2026-03-01T10:00:00Z,Lunch,200,Food
+                2026-03-01T10:00:00,Snack,50,Food
+                """;
+
+        mockMvc.perform(multipart("/api/expenses/import")
+                        .file(new MockMultipartFile("file", "offsets.csv", "text/csv", csv.getBytes()))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(4))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        mockMvc.perform(get("/api/expenses")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$[?(@.title == 'Taxi')].date").value("2026-03-01T15:00:00Z"))
+                .andExpect(jsonPath("$[?(@.title == 'Tea')].date").value("2026-03-01T04:30:00Z"))
+                .andExpect(jsonPath("$[?(@.title == 'Lunch')].date").value("2026-03-01T10:00:00Z"))
+                .andExpect(jsonPath("$[?(@.title == 'Snack')].date").value("2026-03-01T10:00:00Z"));
+    }
+
+    @Test
+    void csvImportKeepsRepeatsOnADaySplitAcrossChunks() throws Exception {
+        String token = registerAndGetToken();
+
+        // Four identical coffees a day; rows 998..1001 share a day on both sides of the first chunk
+        StringBuilder csv = new StringBuilder("date,title,amount,category,paymentMethod,notes\n");
+        LocalDate start = LocalDate.parse("2026-01-01");
+        for (int i = 0; i < 1500; i++) {
+            csv.append(start.plusDays((i + 2) / 4)).append(",Coffee,80,Food,,\n");
+        }
+        byte[] body = csv.toString().getBytes();
+
+        mockMvc.perform(multipart("/api/expenses/import")
+                        .file(new MockMultipartFile("file", "coffee.csv", "text/csv", body))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1500))
+                .andExpect(jsonPath("$.duplicates").value(0));
+
+        mockMvc.perform(multipart("/api/expenses/import")
+                        .file(new MockMultipartFile("file", "coffee.csv", "text/csv", body))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.imported").value(0))
+                .andExpect(jsonPath("$.duplicates").value(1500));
+    }
+
+    @Test
+    void ofxImportTakesDebitsAndSkipsCredits() throws Exception {
+        String token = registerAndGetToken();
+
+        String ofx = """
+                OFXHEADER:100
+                DATA:OFXSGML
+
+                <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                <STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20260305120000[+5.5:IST]<TRNAMT>-450.00<NAME>Fuel Station<MEMO>Card 1234
+                </STMTTRN>
+                <STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20260306<TRNAMT>2000.00<NAME>Salary
+                </STMTTRN>
+                <STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20260307<TRNAMT>-99.99<NAME>Books &amp; More
+                </STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+                """;
+
+        mockMvc.perform(multipart("/api/expenses/import")
+                        .file(new MockMultipartFile("file", "statement.ofx", "application/x-ofx", ofx.getBytes()))
+                        .param("category", "Bank")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(3))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.skipped").value(1));
+
+        mockMvc.perform(get("/api/expenses")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[?(@.title == 'Books & More')].amount").value(99.99))
+                .andExpect(jsonPath("$[?(@.title == 'Fuel Station')].category").value("Bank"))
+                .andExpect(jsonPath("$[?(@.title == 'Fuel Station')].date").value("2026-03-05T12:00:00Z"));
+    }
+}
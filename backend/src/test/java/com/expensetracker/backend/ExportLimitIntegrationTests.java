@@ -0,0 +1,89 @@
+package com.expensetracker.backend;
+
+import com.expensetracker.backend.dto.ExportDtos.ExpenseExportRow;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "export.max-concurrent=1")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ExportLimitIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoSpyBean
+    private ExpenseRepository expenseRepository;
+
+    private String registerAndGetToken() throws Exception {
+        String response = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "firstName": "Export",
+                                  "lastName": "Tester",
+                                  "email": "export-limit@example.com",
+                                  "password": "TestPass123"
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return response.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+    }
+
+    private MvcResult startExport(String token) throws Exception {
+        return mockMvc.perform(get("/api/expenses/export").header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    @Test
+    void exportsBeyondTheLimitGet503UntilOneFinishes() throws Exception {
+        String token = registerAndGetToken();
+        CountDownLatch streaming = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            streaming.countDown();
+            finish.await(10, TimeUnit.SECONDS);
+            return Stream.<ExpenseExportRow>empty();
+        }).when(expenseRepository).streamExportRowsByUserId(anyLong());
+
+        // The first export holds the only permit while it streams
+        MvcResult first = startExport(token);
+        assertThat(streaming.await(5, TimeUnit.SECONDS)).isTrue();
+
+        mockMvc.perform(get("/api/expenses/export").header("Authorization", "Bearer " + token))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        finish.countDown();
+        mockMvc.perform(asyncDispatch(first)).andExpect(status().isOk());
+
+        // The finished export gave its permit back
+        mockMvc.perform(asyncDispatch(startExport(token))).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,188 @@
+package com.expensetracker.backend;
+
+import com.expensetracker.backend.model.JobCheckpoint;
+import com.expensetracker.backend.model.RecurringExpense;
+import com.expensetracker.backend.repository.JobCheckpointRepository;
+import com.expensetracker.backend.repository.RecurringExpenseRepository;
+import com.expensetracker.backend.service.JobLeaseService;
+import com.expensetracker.backend.service.MonthlySnapshotScheduler;
+import com.expensetracker.backend.service.RecurringScheduler;
+import com.expensetracker.backend.service.RecurringScheduler.RunStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"recurring.partitions=4", "snapshot.partitions=2"})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class JobLeaseIntegrationTests {
+
+    private static final Duration TTL = Duration.ofMinutes(30);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoSpyBean
+    private JobLeaseService leaseService;
+
+    @Autowired
+    private RecurringScheduler recurringScheduler;
+
+    @Autowired
+    private MonthlySnapshotScheduler snapshotScheduler;
+
+    @Autowired
+    private RecurringExpenseRepository recurringRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    private String registerAndGetToken(String email) throws Exception {
+        String response = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "firstName": "Lease",
+                                  "lastName": "Tester",
+                                  "email": "%s",
+                                  "password": "TestPass123"
+                                }
+                                """.formatted(email)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        return response.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+    }
+
+    @Test
+    void leaseIsExclusiveUntilItExpires() {
+        Instant t0 = Instant.parse("2025-06-01T09:00:00Z");
+
+        assertThat(leaseService.tryAcquire("job", "node-a", TTL, t0)).isTrue();
+        assertThat(leaseService.tryAcquire("job", "node-b", TTL, t0.plusSeconds(60))).isFalse();
+        // The owner may re-acquire and renew while it holds the lease
+        assertThat(leaseService.tryAcquire("job", "node-a", TTL, t0.plusSeconds(60))).isTrue();
+        assertThat(leaseService.renew("job", "node-a", TTL, t0.plus(Duration.ofMinutes(20)))).isTrue();
+
+        // node-a stops renewing; after expiry node-b takes over
+        Instant expired = t0.plus(Duration.ofMinutes(51));
+        assertThat(leaseService.tryAcquire("job", "node-b", TTL, expired)).isTrue();
+        assertThat(leaseService.renew("job", "node-a", TTL, expired)).isFalse();
+
+        // A stale owner's release does not free the new owner's lease
+        leaseService.release("job", "node-a");
+        assertThat(leaseService.tryAcquire("job", "node-a", TTL, expired.plusSeconds(1))).isFalse();
+
+        leaseService.release("job", "node-b");
+        assertThat(leaseService.tryAcquire("job", "node-a", TTL, expired.plusSeconds(2))).isTrue();
+    }
+
+    @Test
+    void recurringPartitionsHeldElsewhereAreTakenOverAfterExpiry() throws Exception {
+        String token = registerAndGetToken("lease-recurring@example.com");
+        String response = mockMvc.perform(post("/api/recurring")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "title": "Gym",
+                                  "amount": 40,
+                                  "category": "Health",
+                                  "paymentMethod": "UPI",
+                                  "frequency": "MONTHLY",
+                                  "dayOfMonth": 1
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        RecurringExpense template = recurringRepository.findById(UUID.fromString(
+                response.replaceAll(".*\"id\":\"([^\"]+)\".*", "$1"))).orElseThrow();
+        template.setNextDueAt(Instant.parse("2025-06-01T00:00:00Z"));
+        recurringRepository.save(template);
+
+        // Another replica owns every partition
+        Instant t0 = Instant.parse("2025-06-01T09:00:00Z");
+        for (int p = 0; p < 4; p++) {
+            assertThat(leaseService.tryAcquire("recurring-expenses:p" + p + "/4", "other-node", TTL, t0)).isTrue();
+        }
+
+        RunStats blocked = recurringScheduler.generateDue(t0.plus(Duration.ofMinutes(10)));
+        assertThat(blocked.skippedPartitions()).isEqualTo(4);
+        assertThat(blocked.generated()).isZero();
+
+        // The other replica died: its leases lapse and this node takes over
+        RunStats takenOver = recurringScheduler.generateDue(t0.plus(Duration.ofMinutes(31)));
+        assertThat(takenOver.skippedPartitions()).isZero();
+        assertThat(takenOver.generated()).isEqualTo(1);
+    }
+
+    @Test
+    void snapshotPartitionsAreSharedBetweenNodes() throws Exception {
+        registerAndGetToken("lease-snap1@example.com");
+        registerAndGetToken("lease-snap2@example.com");
+        YearMonth month = YearMonth.of(2025, 5);
+
+        // Another replica is working on partition 1
+        assertThat(leaseService.tryAcquire("monthly-snapshot:p1/2", "other-node", TTL, Instant.now())).isTrue();
+
+        MonthlySnapshotScheduler.RunStats first = snapshotScheduler.finalizeMonth(month);
+        assertThat(first.skippedPartitions()).isEqualTo(1);
+        assertThat(first.completed()).isFalse();
+        assertThat(checkpointRepository.findById("monthly-snapshot:p0/2")).isPresent();
+
+        leaseService.release("monthly-snapshot:p1/2", "other-node");
+        MonthlySnapshotScheduler.RunStats second = snapshotScheduler.finalizeMonth(month);
+        assertThat(second.completed()).isTrue();
+        assertThat(first.usersScanned() + second.usersScanned()).isEqualTo(2);
+    }
+
+    @Test
+    void snapshotStopsCheckpointingOnceItsLeaseIsLost() throws Exception {
+        registerAndGetToken("lease-lost1@example.com");
+        registerAndGetToken("lease-lost2@example.com");
+        YearMonth month = YearMonth.of(2025, 5);
+        String name = "monthly-snapshot:p0/2";
+
+        // The first renew finds the lease gone: another node took over and already finished
+        doAnswer(invocation -> {
+            checkpointRepository.save(JobCheckpoint.builder()
+                    .jobName(name)
+                    .runKey(month.toString())
+                    .lastId(999L)
+                    .processedCount(999L)
+                    .status(JobCheckpoint.COMPLETED)
+                    .updatedAt(Instant.now())
+                    .build());
+            return false;
+        }).when(leaseService).renew(eq(name), anyString(), any(), any());
+
+        MonthlySnapshotScheduler.RunStats stats = snapshotScheduler.finalizeMonth(month);
+        assertThat(stats.completed()).isFalse();
+
+        JobCheckpoint checkpoint = checkpointRepository.findById(name).orElseThrow();
+        assertThat(checkpoint.getStatus()).isEqualTo(JobCheckpoint.COMPLETED);
+        assertThat(checkpoint.getLastId()).isEqualTo(999L);
+    }
+}
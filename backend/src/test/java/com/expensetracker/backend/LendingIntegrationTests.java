@@ -1,19 +1,36 @@
 package com.expensetracker.backend;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Room for the parallel payment test: no per-user throttling, and H2 waits on row locks
+        "ratelimit.user.capacity=100000",
+        "spring.datasource.url=jdbc:h2:mem:lending_test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=30000"
+})
 @AutoConfigureMockMvc
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class LendingIntegrationTests {
@@ -21,6 +38,9 @@ class LendingIntegrationTests {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private String registerAndGetToken() throws Exception {
         String response = mockMvc.perform(post("/api/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -195,4 +215,241 @@ class LendingIntegrationTests {
                 .andExpect(jsonPath("$.activeLentCount").value(1))
                 .andExpect(jsonPath("$.activeBorrowedCount").value(1));
     }
-}
\ No newline at end of file
+
+    private String addLending(String token, String type, String person, int amount) throws Exception {
+        String response = mockMvc.perform(post("/api/lending")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                {"type":"%s","personName":"%s","originalAmount":%d,"date":"%s"}
+                                """, type, person, amount, java.time.Instant.now())))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return response.replaceAll(".*?\"id\":\"([^\"]+)\".*", "$1");
+    }
+
+    private void pay(String token, String id, int amount) throws Exception {
+        mockMvc.perform(post("/api/lending/" + id + "/payment")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                {"amount":%d,"date":"%s"}
+                                """, amount, java.time.Instant.now())))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void summaryGroupsAcrossStatuses() throws Exception {
+        String token = registerAndGetToken();
+
+        addLending(token, "LENT", "John", 500);                       // active
+        pay(token, addLending(token, "LENT", "Alice", 300), 100);     // partial: 200 left
+        pay(token, addLending(token, "LENT", "Bob", 50), 50);         // settled
+        pay(token, addLending(token, "BORROWED", "Alice", 400), 150); // partial: 250 left
+        pay(token, addLending(token, "BORROWED", "Carol", 80), 80);   // settled
+
+        mockMvc.perform(get("/api/lending/summary")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalLent").value(850))
+                .andExpect(jsonPath("$.totalBorrowed").value(480))
+                .andExpect(jsonPath("$.owedToYou").value(700))
+                .andExpect(jsonPath("$.youOwe").value(250))
+                .andExpect(jsonPath("$.netPosition").value(450))
+                .andExpect(jsonPath("$.activeLentCount").value(2))
+                .andExpect(jsonPath("$.activeBorrowedCount").value(1))
+                .andExpect(jsonPath("$.knownPersons.length()").value(4));
+
+        mockMvc.perform(get("/api/lending/summary")
+                        .param("includePersons", "false")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.owedToYou").value(700))
+                .andExpect(jsonPath("$.knownPersons.length()").value(0));
+    }
+
+    @Test
+    void personsArePagedByPrefix() throws Exception {
+        String token = registerAndGetToken();
+        for (String person : new String[]{"Anna", "andrew", "Bob", "Annie", "Anna", "a_b"}) {
+            addLending(token, "LENT", person, 10);
+        }
+
+        mockMvc.perform(get("/api/lending/persons")
+                        .param("prefix", "an")
+                        .param("limit", "2")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0]").value("Anna"))
+                .andExpect(jsonPath("$[1]").value("Annie"));
+
+        mockMvc.perform(get("/api/lending/persons")
+                        .param("prefix", "an")
+                        .param("after", "Annie")
+                        .param("limit", "2")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0]").value("andrew"));
+
+        // LIKE wildcards in the prefix are matched literally
+        mockMvc.perform(get("/api/lending/persons")
+                        .param("prefix", "a_")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0]").value("a_b"));
+
+        mockMvc.perform(get("/api/lending/persons")
+                        .param("limit", "0")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Statements prepared while serving one request, after a warm-up request has filled any caches
+    private long statementsFor(MockHttpServletRequestBuilder request) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        mockMvc.perform(request).andExpect(status().isOk());
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void listQueryCountDoesNotGrowWithLendings() throws Exception {
+        String token = registerAndGetToken();
+        for (int i = 0; i < 2; i++) {
+            pay(token, addLending(token, "LENT", "Person " + i, 100), 10);
+        }
+        long listFew = statementsFor(get("/api/lending").header("Authorization", "Bearer " + token));
+        long pageFew = statementsFor(get("/api/lending").param("limit", "50").header("Authorization", "Bearer " + token));
+
+        for (int i = 2; i < 12; i++) {
+            String id = addLending(token, i % 2 == 0 ? "LENT" : "BORROWED", "Person " + i, 100);
+            pay(token, id, 10);
+            pay(token, id, 20);
+        }
+        long listMany = statementsFor(get("/api/lending").header("Authorization", "Bearer " + token));
+        long pageMany = statementsFor(get("/api/lending").param("limit", "50").header("Authorization", "Bearer " + token));
+
+        assertThat(listMany).isEqualTo(listFew);
+        assertThat(pageMany).isEqualTo(pageFew);
+
+        mockMvc.perform(get("/api/lending").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.length()").value(12))
+                .andExpect(jsonPath("$[?(@.personName == 'Person 5')].payments.length()").value(2));
+    }
+
+    @Test
+    void pageFiltersAndFollowsCursor() throws Exception {
+        String token = registerAndGetToken();
+        addLending(token, "LENT", "John", 100);
+        pay(token, addLending(token, "LENT", "John", 50), 50);
+        addLending(token, "LENT", "Alice", 70);
+        addLending(token, "BORROWED", "John", 30);
+
+        String first = mockMvc.perform(get("/api/lending")
+                        .param("limit", "2")
+                        .param("type", "lent")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String cursor = first.replaceAll(".*\"nextCursor\":\"([^\"]+)\".*", "$1");
+
+        mockMvc.perform(get("/api/lending")
+                        .param("limit", "2")
+                        .param("type", "LENT")
+                        .param("cursor", cursor)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/lending")
+                        .param("limit", "10")
+                        .param("person", "John")
+                        .param("status", "SETTLED")
+                        .param("includePayments", "false")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].originalAmount").value(50))
+                .andExpect(jsonPath("$.items[0].payments").doesNotExist());
+
+        mockMvc.perform(get("/api/lending")
+                        .param("limit", "10")
+                        .param("status", "OPEN")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void parallelPaymentsNeverOverpayOrLoseUpdates() throws Exception {
+        String token = registerAndGetToken();
+        String id = addLending(token, "LENT", "Hot", 150);
+
+        // 200 payments of 1 race for a balance of 150
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 200; i++) {
+                results.add(pool.submit(() -> {
+                    MvcResult result = mockMvc.perform(post("/api/lending/" + id + "/payment")
+                                    .header("Authorization", "Bearer " + token)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(String.format("""
+                                            {"amount":1,"date":"%s"}
+                                            """, java.time.Instant.now())))
+                            .andReturn();
+                    return result.getResponse().getStatus();
+                }));
+            }
+        }
+        int accepted = 0;
+        int rejected = 0;
+        for (Future<Integer> result : results) {
+            int code = result.get();
+            if (code == 200) accepted++;
+            else if (code == 400) rejected++;
+        }
+
+        assertThat(accepted).isEqualTo(150);
+        assertThat(rejected).isEqualTo(50);
+        mockMvc.perform(get("/api/lending").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].returnedAmount").value(150))
+                .andExpect(jsonPath("$[0].remainingAmount").value(0))
+                .andExpect(jsonPath("$[0].status").value("SETTLED"))
+                .andExpect(jsonPath("$[0].payments.length()").value(150));
+    }
+
+    @Test
+    void paymentDoesNotLoadPaymentHistory() throws Exception {
+        String token = registerAndGetToken();
+        String id = addLending(token, "LENT", "Steady", 100);
+        for (int i = 0; i < 5; i++) {
+            pay(token, id, 1);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        pay(token, id, 1);
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+
+        mockMvc.perform(post("/api/lending/" + id + "/payment")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                {"amount":95,"date":"%s"}
+                                """, java.time.Instant.now())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Payment amount (95) exceeds remaining balance (94.0000)"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.expensetracker.backend;
+
+import com.expensetracker.backend.exception.ServiceOverloadedException;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.security.OffloadingPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "password.bcrypt.cost=4")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class PasswordHashingIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void loginRehashesPasswordWithConfiguredCost() throws Exception {
+        userRepository.save(User.builder()
+                .email("rehash@example.com")
+                .password(new BCryptPasswordEncoder(5).encode("TestPass123"))
+                .firstName("Re")
+                .createdAt(Instant.now())
+                .build());
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"email\":\"rehash@example.com\",\"password\":\"TestPass123\"}"))
+                    .andExpect(status().isOk());
+            assertThat(userRepository.findByEmail("rehash@example.com").orElseThrow().getPassword())
+                    .startsWith("$2a$04$");
+        }
+        assertThat(meterRegistry.get("password.hash").tag("operation", "matches").timer().count())
+                .isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void saturatedHashingPoolFailsFast() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder slow = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        try (OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(slow, 4, 1, 1, registry)) {
+            Thread running = new Thread(() -> encoder.encode("first"));
+            running.start();
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread queued = new Thread(() -> encoder.encode("second"));
+            queued.start();
+            while (encoder.queued() < 1) Thread.sleep(5);
+
+            // One hashing, one waiting: the next caller is turned away instead of queueing
+            assertThatThrownBy(() -> encoder.encode("third"))
+                    .isInstanceOf(ServiceOverloadedException.class);
+            assertThat(registry.get("password.hash.rejected").counter().count()).isEqualTo(1);
+
+            release.countDown();
+            running.join(5000);
+            queued.join(5000);
+            assertThat(registry.get("password.hash").tag("operation", "encode").timer().count()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void upgradeEncodingFlagsAnyOtherCost() {
+        try (OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(
+                new BCryptPasswordEncoder(10), 10, 1, 1, new SimpleMeterRegistry())) {
+            assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("x"))).isTrue();
+            assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(11).encode("x"))).isTrue();
+            assertThat(encoder.upgradeEncoding(encoder.encode("x"))).isFalse();
+        }
+    }
+}
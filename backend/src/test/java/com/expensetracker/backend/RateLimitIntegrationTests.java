@@ -0,0 +1,76 @@
+package com.expensetracker.backend;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "ratelimit.local.max-size=5")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class RateLimitIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MockHttpServletRequestBuilder login(String peer, String forwardedFor) {
+        MockHttpServletRequestBuilder request = post("/api/auth/login")
+                .with(r -> {
+                    r.setRemoteAddr(peer);
+                    return r;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"nobody@example.com\",\"password\":\"wrong\"}");
+        return forwardedFor == null ? request : request.header("X-Forwarded-For", forwardedFor);
+    }
+
+    @Test
+    void spoofedForwardedForFromUntrustedPeerIsIgnored() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            mockMvc.perform(login("203.0.113.9", "198.51.100." + i))
+                    .andExpect(status().isUnauthorized());
+        }
+        // A fresh header value does not buy a fresh bucket
+        mockMvc.perform(login("203.0.113.9", "198.51.100.99"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void trustedProxyForwardsTheRealClient() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            mockMvc.perform(login("10.0.0.1", "198.51.100.7, 10.0.0.2"))
+                    .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(login("10.0.0.1", "198.51.100.7, 10.0.0.2"))
+                .andExpect(status().isTooManyRequests());
+        // Another client behind the same proxy has its own bucket; a prepended fake hop changes nothing
+        mockMvc.perform(login("10.0.0.1", "198.51.100.8"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(login("10.0.0.1", "1.2.3.4, 198.51.100.7"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void localBucketStoreIsBounded() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            mockMvc.perform(login("203.0.113." + i, null));
+        }
+
+        assertThat(meterRegistry.get("cache.size").tag("cache", "ratelimit-buckets").gauge().value())
+                .isLessThanOrEqualTo(5);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", "ratelimit-buckets")
+                .functionCounter().count()).isGreaterThanOrEqualTo(45);
+    }
+}
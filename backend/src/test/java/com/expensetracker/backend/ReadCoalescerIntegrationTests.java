@@ -0,0 +1,122 @@
+package com.expensetracker.backend;
+
+import com.expensetracker.backend.service.DataVersionService;
+import com.expensetracker.backend.service.ReadCoalescer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:coalesce_test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReadCoalescerIntegrationTests {
+
+    private static final Long USER_ID = 42L;
+
+    @Autowired
+    private ReadCoalescer coalescer;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void concurrentIdenticalReadsShareOneComputation() throws Exception {
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> results = new CopyOnWriteArrayList<>();
+
+        Thread leader = reader("budget", () -> {
+            computations.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "computed once";
+        }, results);
+        leader.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Thread> followers = List.of(
+                reader("budget", () -> "not used " + computations.incrementAndGet(), results),
+                reader("budget", () -> "not used " + computations.incrementAndGet(), results),
+                reader("budget", () -> "not used " + computations.incrementAndGet(), results));
+        followers.forEach(Thread::start);
+        awaitCount("joined", 3);
+
+        release.countDown();
+        leader.join(5000);
+        for (Thread follower : followers) follower.join(5000);
+
+        assertThat(computations).hasValue(1);
+        assertThat(results).hasSize(4).containsOnly("computed once");
+        assertThat(count("leader")).isEqualTo(1);
+    }
+
+    @Test
+    void readAfterOwnWriteNeverJoinsAnOlderFlight() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> results = new CopyOnWriteArrayList<>();
+
+        Thread stale = reader("budget", () -> {
+            started.countDown();
+            await(release);
+            return "before write";
+        }, results);
+        stale.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The caller's write commits while the older computation is still running
+        new TransactionTemplate(transactionManager).executeWithoutResult(s -> dataVersionService.bump(USER_ID));
+
+        assertThat(coalescer.coalesce(USER_ID, "budget", () -> "after write")).isEqualTo("after write");
+        assertThat(count("joined")).isZero();
+
+        release.countDown();
+        stale.join(5000);
+        assertThat(results).containsExactly("before write");
+    }
+
+    private Thread reader(String endpoint, Supplier<String> compute, List<String> results) {
+        return new Thread(() -> results.add(coalescer.coalesce(USER_ID, endpoint, compute)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double count(String role) {
+        var counter = meterRegistry.find("coalesce.requests").tag("endpoint", "budget").tag("role", role).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private void awaitCount(String role, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (count(role) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(count(role)).isEqualTo(expected);
+    }
+}
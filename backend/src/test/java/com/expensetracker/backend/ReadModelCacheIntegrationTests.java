@@ -0,0 +1,148 @@
+package com.expensetracker.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:readmodel_test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=30000",
+        "ratelimit.user.capacity=100000"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReadModelCacheIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String registerAndGetToken(String email) throws Exception {
+        String response = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "firstName": "Cache",
+                                  "lastName": "Tester",
+                                  "email": "%s",
+                                  "password": "TestPass123"
+                                }
+                                """.formatted(email)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return response.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+    }
+
+    @Test
+    void repeatedReadsAreServedFromTheCache() throws Exception {
+        String token = registerAndGetToken("cache-hits@example.com");
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/savings").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalSaved").value(0));
+        }
+
+        assertThat(gets("miss")).isEqualTo(1);
+        assertThat(gets("hit")).isEqualTo(2);
+        assertThat(meterRegistry.get("readmodel.cache.bytes").gauge().value()).isPositive();
+    }
+
+    @Test
+    void noReadAfterAWriteReturnsTheOlderModel() throws Exception {
+        String token = registerAndGetToken("cache-stress@example.com");
+        int writers = 4;
+        int writesEach = 10;
+        // The first write and read create the ledger and budget rows; concurrent requests then only update them
+        addExpense(token);
+        spent(token);
+        AtomicInteger committed = new AtomicInteger(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < writesEach; i++) {
+                        addExpense(token);
+                        int atLeast = committed.incrementAndGet();
+                        BigDecimal spent = spent(token);
+                        if (spent.compareTo(BigDecimal.valueOf(atLeast)) < 0) {
+                            failures.add("read " + spent + " after " + atLeast + " committed writes");
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e.toString());
+                }
+            }));
+        }
+        // Keeps the cache populated between writes, so stale entries would be there to serve
+        threads.add(new Thread(() -> {
+            try {
+                while (writing.get()) spent(token);
+            } catch (Throwable e) {
+                failures.add(e.toString());
+            }
+        }));
+
+        threads.forEach(Thread::start);
+        for (int i = 0; i < writers; i++) threads.get(i).join(60_000);
+        writing.set(false);
+        threads.get(writers).join(60_000);
+
+        assertThat(failures).isEmpty();
+        assertThat(spent(token)).isEqualByComparingTo(BigDecimal.valueOf(committed.get()));
+    }
+
+    private void addExpense(String token) throws Exception {
+        mockMvc.perform(post("/api/expenses")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"Tea","amount":1,"category":"Food","date":"%s"}
+                                """.formatted(Instant.now())))
+                .andExpect(status().isOk());
+    }
+
+    private BigDecimal spent(String token) throws Exception {
+        String body = mockMvc.perform(get("/api/budget").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(body).get("currentMonthSpent").decimalValue();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "read_models").tag("result", result)
+                .functionCounter().count();
+    }
+}
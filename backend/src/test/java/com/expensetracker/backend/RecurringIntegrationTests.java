@@ -1,13 +1,31 @@
 package com.expensetracker.backend;
 
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.RecurringExpense;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.RecurringExpenseRepository;
+import com.expensetracker.backend.repository.RecurringExpenseRepository.DueTemplate;
+import com.expensetracker.backend.service.RecurringScheduler;
+import com.expensetracker.backend.service.RecurringScheduler.RunStats;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -21,6 +39,15 @@ class RecurringIntegrationTests {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private RecurringScheduler recurringScheduler;
+
+    @MockitoSpyBean
+    private RecurringExpenseRepository recurringRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
     private String registerAndGetToken() throws Exception {
         String response = mockMvc.perform(post("/api/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -109,4 +136,99 @@ class RecurringIntegrationTests {
                                 """))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    void schedulerCatchesUpMissedOccurrences() throws Exception {
+        UUID id = createMonthlyTemplate(registerAndGetToken());
+        Instant now = Instant.parse("2025-06-20T10:00:00Z");
+        setNextDue(id, Instant.parse("2025-03-15T00:00:00Z"));
+
+        RunStats stats = recurringScheduler.generateDue(now);
+
+        assertThat(stats.generated()).isEqualTo(4);
+        assertThat(stats.failedChunks()).isZero();
+        assertThat(occurrenceDates(id)).containsExactly(
+                LocalDate.of(2025, 3, 15), LocalDate.of(2025, 4, 15),
+                LocalDate.of(2025, 5, 15), LocalDate.of(2025, 6, 15));
+        assertThat(recurringRepository.findById(id).orElseThrow().getNextDueAt())
+                .isEqualTo(Instant.parse("2025-07-15T00:00:00Z"));
+    }
+
+    @Test
+    void schedulerNeverGeneratesAnOccurrenceTwice() throws Exception {
+        UUID id = createMonthlyTemplate(registerAndGetToken());
+        Instant now = Instant.parse("2025-06-20T10:00:00Z");
+        setNextDue(id, Instant.parse("2025-05-15T00:00:00Z"));
+
+        recurringScheduler.generateDue(now);
+        assertThat(recurringScheduler.generateDue(now).generated()).isZero();
+
+        // Schedule rewound (e.g. crash before the template update was visible): existing days are skipped
+        setNextDue(id, Instant.parse("2025-04-15T00:00:00Z"));
+        RunStats replay = recurringScheduler.generateDue(now.plusSeconds(60));
+
+        assertThat(replay.generated()).isEqualTo(1);
+        assertThat(occurrenceDates(id)).containsExactly(
+                LocalDate.of(2025, 4, 15), LocalDate.of(2025, 5, 15), LocalDate.of(2025, 6, 15));
+    }
+
+    @Test
+    void templateEditedAfterTheChunkWasReadIsRetriedFromItsNewSchedule() throws Exception {
+        UUID id = createMonthlyTemplate(registerAndGetToken());
+        Instant now = Instant.parse("2025-06-20T10:00:00Z");
+        setNextDue(id, Instant.parse("2025-03-15T00:00:00Z"));
+
+        // The user moves the template forward right after the scheduler read its chunk
+        AtomicBoolean read = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (!read.compareAndSet(false, true)) return List.of();
+            List<DueTemplate> chunk = recurringRepository.findDueByIds(List.of(id), now);
+            setNextDue(id, Instant.parse("2025-05-15T00:00:00Z"));
+            return chunk;
+        }).when(recurringRepository).findDueChunk(any(), any(), any(), any(), any(), any());
+
+        RunStats stats = recurringScheduler.generateDue(now);
+
+        assertThat(stats.failedChunks()).isZero();
+        assertThat(occurrenceDates(id)).containsExactly(LocalDate.of(2025, 5, 15), LocalDate.of(2025, 6, 15));
+        assertThat(recurringRepository.findById(id).orElseThrow().getNextDueAt())
+                .isEqualTo(Instant.parse("2025-07-15T00:00:00Z"));
+    }
+
+    private UUID createMonthlyTemplate(String token) throws Exception {
+        String response = mockMvc.perform(post("/api/recurring")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "title": "Rent",
+                                  "amount": 1200,
+                                  "category": "Housing",
+                                  "paymentMethod": "BANK_TRANSFER",
+                                  "frequency": "MONTHLY",
+                                  "dayOfMonth": 15
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        return UUID.fromString(response.replaceAll(".*\"id\":\"([^\"]+)\".*", "$1"));
+    }
+
+    private void setNextDue(UUID id, Instant nextDueAt) {
+        RecurringExpense r = recurringRepository.findById(id).orElseThrow();
+        r.setNextDueAt(nextDueAt);
+        r.setLastGeneratedAt(null);
+        recurringRepository.save(r);
+    }
+
+    private List<LocalDate> occurrenceDates(UUID recurringId) {
+        return expenseRepository.findAll().stream()
+                .filter(e -> recurringId.equals(e.getRecurringId()))
+                .map(Expense::getOccurrenceDate)
+                .sorted()
+                .toList();
+    }
+}
@@ -1,5 +1,10 @@
 package com.expensetracker.backend;
 
+import com.expensetracker.backend.model.JobCheckpoint;
+import com.expensetracker.backend.repository.JobCheckpointRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.service.MonthlySnapshotScheduler;
+import com.expensetracker.backend.service.MonthlySnapshotScheduler.RunStats;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -8,13 +13,20 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = "snapshot.chunk-size=2")
 @AutoConfigureMockMvc
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class SavingsIntegrationTests {
@@ -22,17 +34,30 @@ class SavingsIntegrationTests {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private MonthlySnapshotScheduler snapshotScheduler;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
     private String registerAndGetToken() throws Exception {
+        return registerAndGetToken("savings-test@example.com");
+    }
+
+    private String registerAndGetToken(String email) throws Exception {
         String response = mockMvc.perform(post("/api/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("""
                                 {
                                   "firstName": "Savings",
                                   "lastName": "Tester",
-                                  "email": "savings-test@example.com",
+                                  "email": "%s",
                                   "password": "TestPass123"
                                 }
-                                """))
+                                """.formatted(email)))
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -95,4 +120,156 @@ class SavingsIntegrationTests {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.currentMonthProjected").value(4000));
     }
-}
\ No newline at end of file
+
+    private void setBudget(String token, boolean enabled, int amount) throws Exception {
+        mockMvc.perform(put("/api/budget")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "enabled": %s, "monthlyAmount": %d }
+                                """.formatted(enabled, amount)))
+                .andExpect(status().isOk());
+    }
+
+    private void addExpense(String token, int amount, Instant date) throws Exception {
+        mockMvc.perform(post("/api/expenses")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "title": "Test", "amount": %d, "category": "Food", "date": "%s" }
+                                """.formatted(amount, date)))
+                .andExpect(status().isOk());
+    }
+
+    private static YearMonth previousMonth() {
+        return YearMonth.from(LocalDate.now(ZoneOffset.UTC).minusMonths(1));
+    }
+
+    @Test
+    void snapshotJobFinalizesPreviousMonthAcrossChunks() throws Exception {
+        YearMonth month = previousMonth();
+        Instant midMonth = month.atDay(15).atStartOfDay().toInstant(ZoneOffset.UTC);
+
+        String first = registerAndGetToken("snap1@example.com");
+        String second = registerAndGetToken("snap2@example.com");
+        String third = registerAndGetToken("snap3@example.com");
+        setBudget(first, true, 5000);
+        setBudget(second, false, 5000);
+        setBudget(third, true, 3000);
+        addExpense(first, 1000, midMonth);
+        addExpense(third, 3500, midMonth);
+        addExpense(third, 200, Instant.now());
+
+        RunStats stats = snapshotScheduler.finalizeMonth(month);
+        assertThat(stats.completed()).isTrue();
+        assertThat(stats.usersScanned()).isEqualTo(3);
+        assertThat(stats.snapshotsCreated()).isEqualTo(2);
+
+        mockMvc.perform(get("/api/savings")
+                        .header("Authorization", "Bearer " + first))
+                .andExpect(jsonPath("$.history[0].spentAmount").value(1000))
+                .andExpect(jsonPath("$.history[0].savedAmount").value(4000));
+        mockMvc.perform(get("/api/savings")
+                        .header("Authorization", "Bearer " + third))
+                .andExpect(jsonPath("$.history[0].spentAmount").value(3500))
+                .andExpect(jsonPath("$.history[0].savedAmount").value(0));
+        mockMvc.perform(get("/api/savings")
+                        .header("Authorization", "Bearer " + second))
+                .andExpect(jsonPath("$.history.length()").value(0));
+
+        // A finished month is not scanned again
+        RunStats again = snapshotScheduler.finalizeMonth(month);
+        assertThat(again.usersScanned()).isZero();
+        assertThat(again.snapshotsCreated()).isZero();
+    }
+
+    @Test
+    void snapshotJobResumesFromCheckpoint() throws Exception {
+        YearMonth month = previousMonth();
+        String first = registerAndGetToken("resume1@example.com");
+        String second = registerAndGetToken("resume2@example.com");
+        String third = registerAndGetToken("resume3@example.com");
+        setBudget(first, true, 1000);
+        setBudget(second, true, 1000);
+        setBudget(third, true, 1000);
+
+        // An earlier run got through the first user before stopping
+        long firstId = userRepository.findByEmail("resume1@example.com").orElseThrow().getId();
+        checkpointRepository.save(JobCheckpoint.builder()
+                .jobName("monthly-snapshot")
+                .runKey(month.toString())
+                .lastId(firstId)
+                .processedCount(1L)
+                .status(JobCheckpoint.RUNNING)
+                .updatedAt(Instant.now())
+                .build());
+
+        RunStats stats = snapshotScheduler.finalizeMonth(month);
+        assertThat(stats.resumedAfterId()).isEqualTo(firstId);
+        assertThat(stats.usersScanned()).isEqualTo(2);
+        assertThat(stats.snapshotsCreated()).isEqualTo(2);
+
+        JobCheckpoint checkpoint = checkpointRepository.findById("monthly-snapshot").orElseThrow();
+        assertThat(checkpoint.getStatus()).isEqualTo(JobCheckpoint.COMPLETED);
+        assertThat(checkpoint.getProcessedCount()).isEqualTo(3);
+
+        mockMvc.perform(get("/api/savings")
+                        .header("Authorization", "Bearer " + first))
+                .andExpect(jsonPath("$.history.length()").value(0));
+        mockMvc.perform(get("/api/savings")
+                        .header("Authorization", "Bearer " + second))
+                .andExpect(jsonPath("$.history[0].savedAmount").value(1000));
+    }
+
+    private void saveRunningCheckpoint(YearMonth month, long lastId) {
+        checkpointRepository.save(JobCheckpoint.builder()
+                .jobName("monthly-snapshot")
+                .runKey(month.toString())
+                .lastId(lastId)
+                .processedCount(0L)
+                .status(JobCheckpoint.RUNNING)
+                .updatedAt(Instant.now())
+                .build());
+    }
+
+    @Test
+    void dailyResumeFinishesAnIncompleteEarlierMonth() throws Exception {
+        YearMonth earlier = previousMonth().minusMonths(1);
+        String token = registerAndGetToken("stale1@example.com");
+        setBudget(token, true, 1000);
+
+        // That month's run had a failed chunk and stopped at the start
+        saveRunningCheckpoint(earlier, 0);
+
+        List<RunStats> resumed = snapshotScheduler.resumeIncomplete();
+        assertThat(resumed).hasSize(1);
+        assertThat(resumed.get(0).month()).isEqualTo(earlier);
+        assertThat(resumed.get(0).completed()).isTrue();
+        assertThat(resumed.get(0).snapshotsCreated()).isEqualTo(1);
+        assertThat(checkpointRepository.findById("monthly-snapshot").orElseThrow().getStatus())
+                .isEqualTo(JobCheckpoint.COMPLETED);
+
+        // Nothing left to resume
+        assertThat(snapshotScheduler.resumeIncomplete()).isEmpty();
+    }
+
+    @Test
+    void monthlyRunFinishesAnIncompleteEarlierMonthFirst() throws Exception {
+        YearMonth month = previousMonth();
+        String token = registerAndGetToken("stale2@example.com");
+        setBudget(token, true, 1000);
+        saveRunningCheckpoint(month.minusMonths(1), 0);
+
+        RunStats stats = snapshotScheduler.finalizeMonth(month);
+        assertThat(stats.completed()).isTrue();
+        assertThat(stats.snapshotsCreated()).isEqualTo(1);
+
+        // Both months got their snapshot before the checkpoint row moved on
+        mockMvc.perform(get("/api/savings")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.history.length()").value(2));
+        JobCheckpoint checkpoint = checkpointRepository.findById("monthly-snapshot").orElseThrow();
+        assertThat(checkpoint.getRunKey()).isEqualTo(month.toString());
+        assertThat(checkpoint.getStatus()).isEqualTo(JobCheckpoint.COMPLETED);
+    }
+}
@@ -0,0 +1,175 @@
+package com.expensetracker.backend;
+
+import com.expensetracker.backend.repository.BudgetRepository;
+import com.expensetracker.backend.repository.PreferenceRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:l2_test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SecondLevelCacheIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private PreferenceRepository preferenceRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private String registerAndGetToken(String email) throws Exception {
+        String response = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "firstName": "Cache",
+                                  "lastName": "Tester",
+                                  "email": "%s",
+                                  "password": "TestPass123"
+                                }
+                                """.formatted(email)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return response.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+    }
+
+    @Test
+    void emailLookupIsAnsweredFromTheCache() throws Exception {
+        registerAndGetToken("natural-id@example.com");
+        userRepository.findByEmail("natural-id@example.com").orElseThrow();
+
+        statistics.clear();
+        Long id = userRepository.findByEmail("natural-id@example.com").orElseThrow().getId();
+
+        assertThat(id).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1);
+        assertThat(userRepository.findByEmail("nobody@example.com")).isEmpty();
+    }
+
+    @Test
+    void budgetUpdateReplacesTheCachedEntry() throws Exception {
+        String token = registerAndGetToken("l2-budget@example.com");
+        Long userId = userRepository.findByEmail("l2-budget@example.com").orElseThrow().getId();
+        mockMvc.perform(get("/api/budget").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        statistics.clear();
+        assertThat(budgetRepository.findByUserId(userId).orElseThrow().getMonthlyAmount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        mockMvc.perform(put("/api/budget")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"enabled\":true,\"monthlyAmount\":2500}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.monthlyAmount").value(2500));
+
+        statistics.clear();
+        assertThat(budgetRepository.findByUserId(userId).orElseThrow().getMonthlyAmount())
+                .isEqualByComparingTo(new BigDecimal("2500"));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics("budgets").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void readModelsIgnoreEntriesThatAnotherInstanceMadeStale() throws Exception {
+        String token = registerAndGetToken("l2-replica@example.com");
+        Long userId = userRepository.findByEmail("l2-replica@example.com").orElseThrow().getId();
+        mockMvc.perform(get("/api/budget").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.monthlyAmount").value(0));
+
+        // Another instance's update: its commit reaches the database but not this process's L2
+        jdbcTemplate.update("UPDATE budgets SET enabled = TRUE, monthly_amount = 900 WHERE user_id = ?", userId);
+        jdbcTemplate.update("UPDATE user_data_versions SET version = version + 1 WHERE user_id = ?", userId);
+
+        mockMvc.perform(get("/api/budget").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.monthlyAmount").value(900));
+    }
+
+    @Test
+    void preferenceUpdateIsVisibleToTheNextRead() throws Exception {
+        String token = registerAndGetToken("l2-prefs@example.com");
+        mockMvc.perform(get("/api/prefs").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currency").value("INR"));
+
+        mockMvc.perform(put("/api/prefs")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currency\":\"EUR\",\"theme\":\"manga\"}"))
+                .andExpect(status().isOk());
+
+        statistics.clear();
+        mockMvc.perform(get("/api/prefs").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currency").value("EUR"))
+                .andExpect(jsonPath("$.theme").value("manga"));
+        assertThat(statistics.getDomainDataRegionStatistics("preferences").getHitCount()).isEqualTo(1);
+
+        Long userId = userRepository.findByEmail("l2-prefs@example.com").orElseThrow().getId();
+        assertThat(preferenceRepository.findByUserId(userId).orElseThrow().getTheme()).isEqualTo("manga");
+    }
+
+    @Test
+    void regionsPublishSizeAndEvictionPolicy() throws Exception {
+        registerAndGetToken("l2-metrics@example.com");
+        userRepository.findByEmail("l2-metrics@example.com").orElseThrow();
+
+        assertThat(meterRegistry.get("cache.size").tag("cache", "l2.users").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("l2.region.max.size").tag("cache", "l2.budgets").gauge().value())
+                .isEqualTo(10000);
+        assertThat(meterRegistry.get("l2.region.ttl").tag("cache", "l2.preferences").gauge().value())
+                .isEqualTo(600);
+    }
+}
@@ -0,0 +1,220 @@
+package com.expensetracker.backend;
+
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.service.DataVersionService;
+import com.expensetracker.backend.service.SpendLedgerService;
+import com.expensetracker.backend.service.SpendLedgerService.BucketTotal;
+import com.expensetracker.backend.service.SpendLedgerService.Drift;
+import com.expensetracker.backend.service.SpendLedgerService.LedgerKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SpendLedgerIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SpendLedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long connectionsAcquired() {
+        return meterRegistry.get("hikaricp.connections.acquire").timer().count();
+    }
+
+    private String registerAndGetToken() throws Exception {
+        String response = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "firstName": "Ledger",
+                                  "lastName": "Tester",
+                                  "email": "ledger-test@example.com",
+                                  "password": "TestPass123"
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        return response.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+    }
+
+    private String addExpense(String token, int amount, Instant date) throws Exception {
+        String response = mockMvc.perform(post("/api/expenses")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                {
+                                  "title": "Test",
+                                  "amount": %d,
+                                  "category": "Food",
+                                  "date": "%s"
+                                }
+                                """, amount, date)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        return response.replaceAll(".*\"id\":\"([^\"]+)\".*", "$1");
+    }
+
+    private Long userId() {
+        return userRepository.findByEmail("ledger-test@example.com").orElseThrow().getId();
+    }
+
+    @Test
+    void editsAndDeletesMoveTheMonthlyTotal() throws Exception {
+        String token = registerAndGetToken();
+        Instant now = Instant.now();
+
+        String first = addExpense(token, 300, now);
+        addExpense(token, 200, now);
+
+        mockMvc.perform(get("/api/budget").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.currentMonthSpent").value(500));
+
+        // Amount change within the same bucket
+        mockMvc.perform(put("/api/expenses/" + first)
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                {"title":"Test","amount":350,"category":"Food","date":"%s"}
+                                """, now)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/budget").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.currentMonthSpent").value(550));
+
+        // Date moved to an older month leaves this month
+        mockMvc.perform(put("/api/expenses/" + first)
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                {"title":"Test","amount":350,"category":"Food","date":"%s"}
+                                """, now.minus(Duration.ofDays(40)))))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/budget").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.currentMonthSpent").value(200));
+
+        mockMvc.perform(delete("/api/expenses/" + first)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        assertThat(ledgerService.rebuildUser(userId(), false)).isEmpty();
+    }
+
+    @Test
+    void rebuildReportsAndRepairsDrift() throws Exception {
+        String token = registerAndGetToken();
+        addExpense(token, 400, Instant.now());
+
+        // Corrupt the rollup behind the application's back
+        jdbcTemplate.update("UPDATE monthly_spend SET amount = 1 WHERE user_id = ?", userId());
+
+        List<Drift> drifts = ledgerService.rebuildUser(userId(), true);
+        assertThat(drifts).hasSize(1);
+        assertThat(drifts.get(0).expected()).isEqualByComparingTo("400");
+
+        assertThat(ledgerService.rebuildUser(userId(), false)).isEmpty();
+        mockMvc.perform(get("/api/budget").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.currentMonthSpent").value(400));
+    }
+
+    @Test
+    void concurrentFirstWritesToABucketAllSucceed() throws Exception {
+        String token = registerAndGetToken();
+        Instant lastMonth = Instant.now().minus(Duration.ofDays(35));
+        int writers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    addExpense(token, 10, lastMonth);
+                } catch (Throwable e) {
+                    failures.add(e.toString());
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread t : threads) t.join(60_000);
+
+        assertThat(failures).isEmpty();
+        assertThat(ledgerService.rebuildUser(userId(), false)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SUM(amount) FROM monthly_spend WHERE user_id = ?", Integer.class, userId()))
+                .isEqualTo(10 * writers);
+    }
+
+    @Test
+    void firstWritesCreateTheirRowsOnTheCallersConnection() throws Exception {
+        registerAndGetToken();
+        User user = userRepository.findById(userId()).orElseThrow();
+        jdbcTemplate.update("DELETE FROM user_data_versions WHERE user_id = ?", user.getId());
+        LedgerKey key = new LedgerKey(2024, 2, "Travel", "CASH");
+
+        long before = connectionsAcquired();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ledgerService.recordBatch(user, Map.of(key, new BucketTotal(new BigDecimal("42"), 2)));
+            dataVersionService.bump(user.getId());
+        });
+
+        // New bucket and new version row, yet only the outer transaction's connection was taken
+        assertThat(connectionsAcquired() - before).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT expense_count FROM monthly_spend WHERE user_id = ? AND category = 'Travel'",
+                Integer.class, user.getId())).isEqualTo(2);
+        assertThat(dataVersionService.current(user.getId())).isEqualTo(1);
+    }
+}
@@ -0,0 +1,83 @@
+package com.expensetracker.backend;
+
+import com.expensetracker.backend.service.MonthlySnapshotScheduler;
+import com.expensetracker.backend.service.RecurringScheduler;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=3"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ThreadingIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("fanOutExecutor")
+    private ExecutorService fanOutExecutor;
+
+    @Autowired
+    private RecurringScheduler recurringScheduler;
+
+    @Autowired
+    private MonthlySnapshotScheduler snapshotScheduler;
+
+    @Test
+    void virtualModeServesRequestsAndJobsFromTheHikariPool() throws Exception {
+        // Hikari's own connection wait bounds DB concurrency; nothing sits in front of it
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        assertThat(dataSource).isSameAs(hikari);
+
+        String response = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "firstName": "Virtual",
+                                  "lastName": "Tester",
+                                  "email": "virtual-test@example.com",
+                                  "password": "TestPass123"
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String token = response.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+        mockMvc.perform(get("/api/expenses").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        // The batch jobs fan out on the same virtual-thread executor
+        assertThat(recurringScheduler.generateDue(Instant.now()).failedChunks()).isZero();
+        assertThat(snapshotScheduler.finalizeMonth(YearMonth.now().minusMonths(1)).completed()).isTrue();
+        assertThat(hikari.getHikariPoolMXBean().getActiveConnections()).isZero();
+    }
+
+    @Test
+    void fanOutExecutorUsesVirtualThreads() throws Exception {
+        assertThat(fanOutExecutor.submit(() -> Thread.currentThread().isVirtual()).get()).isTrue();
+    }
+}
@@ -0,0 +1,178 @@
+package com.expensetracker.backend;
+
+import com.expensetracker.backend.security.FairRequestQueue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "ratelimit.user.capacity=25",
+        "ratelimit.user.period=1h",
+        "ratelimit.fair-queue.enabled=true",
+        "ratelimit.fair-queue.slots=1",
+        "ratelimit.fair-queue.per-user=1"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class UserRateLimitIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FairRequestQueue fairQueue;
+
+    private String registerAndGetToken(String email) throws Exception {
+        String response = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "firstName": "Rate",
+                                  "lastName": "Tester",
+                                  "email": "%s",
+                                  "password": "TestPass123"
+                                }
+                                """.formatted(email)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return response.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+    }
+
+    @Test
+    void heavyEndpointsSpendMoreOfTheUsersBucket() throws Exception {
+        String token = registerAndGetToken("heavy-user@example.com");
+        String other = registerAndGetToken("quiet-user@example.com");
+
+        mockMvc.perform(get("/api/expenses").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("RateLimit-Limit", "25"))
+                .andExpect(header().string("RateLimit-Remaining", "24"))
+                .andExpect(header().string("RateLimit-Policy", "25;w=3600"))
+                .andExpect(header().exists("RateLimit-Reset"));
+
+        // Summary costs 10: two fit, the third does not
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/lending/summary").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/lending/summary").header("Authorization", "Bearer " + token))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("RateLimit-Remaining", "4"))
+                .andExpect(header().exists("Retry-After"));
+
+        // Cheap reads still fit in what is left, and other users are unaffected
+        mockMvc.perform(get("/api/expenses").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("RateLimit-Remaining", "3"));
+        mockMvc.perform(get("/api/lending/summary").header("Authorization", "Bearer " + other))
+                .andExpect(status().isOk())
+                .andExpect(header().string("RateLimit-Remaining", "15"));
+    }
+
+    @Test
+    void fairQueueAlternatesBetweenWaitingUsers() throws Exception {
+        assertThat(fairQueue.acquire(1L, Duration.ZERO)).isTrue();
+
+        List<String> granted = new CopyOnWriteArrayList<>();
+        Thread[] waiters = {
+                waiter(1L, "user1-a", granted),
+                waiter(1L, "user1-b", granted),
+                waiter(2L, "user2", granted)
+        };
+        for (int i = 0; i < waiters.length; i++) {
+            waiters[i].start();
+            awaitQueued(i + 1);
+        }
+
+        fairQueue.release(1L);
+        for (Thread waiter : waiters) waiter.join(5000);
+
+        // user2 gets the slot after one of user1's queued requests, not after both
+        assertThat(granted).containsExactly("user1-a", "user2", "user1-b");
+        assertThat(fairQueue.queued()).isZero();
+    }
+
+    @Test
+    void requestInterruptedWhileQueuedGets503() throws Exception {
+        String token = registerAndGetToken("interrupted-user@example.com");
+        // Another user holds the only slot
+        assertThat(fairQueue.acquire(-1L, Duration.ZERO)).isTrue();
+
+        AtomicReference<MvcResult> result = new AtomicReference<>();
+        Thread request = new Thread(() -> {
+            try {
+                result.set(mockMvc.perform(get("/api/expenses").header("Authorization", "Bearer " + token))
+                        .andReturn());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        request.start();
+        awaitQueued(1);
+        request.interrupt();
+        request.join(5000);
+
+        assertThat(result.get().getResponse().getStatus()).isEqualTo(503);
+        assertThat(result.get().getResponse().getHeader("Retry-After")).isEqualTo("1");
+        assertThat(result.get().getResponse().getContentAsString()).contains("Server is busy");
+        assertThat(fairQueue.queued()).isZero();
+        fairQueue.release(-1L);
+    }
+
+    @Test
+    void streamingExportKeepsItsSlotUntilTheResponseCompletes() throws Exception {
+        String token = registerAndGetToken("export-user@example.com");
+
+        MvcResult started = mockMvc.perform(get("/api/expenses/export")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // The controller has returned but the body is still streaming
+        assertThat(fairQueue.acquire(-1L, Duration.ZERO)).isFalse();
+
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        assertThat(fairQueue.acquire(-1L, Duration.ZERO)).isTrue();
+        fairQueue.release(-1L);
+    }
+
+    private Thread waiter(long userId, String name, List<String> granted) {
+        return new Thread(() -> {
+            try {
+                if (fairQueue.acquire(userId, Duration.ofSeconds(5))) {
+                    granted.add(name);
+                    fairQueue.release(userId);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private void awaitQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (fairQueue.queued() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(fairQueue.queued()).isEqualTo(expected);
+    }
+}
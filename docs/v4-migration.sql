@@ -0,0 +1,161 @@
+-- ═══════════════════════════════════════════════════════════════
+-- v4.0 Migration: Performance (aggregate queries, indexes)
+-- Run in Neon SQL Editor
+-- ═══════════════════════════════════════════════════════════════
+
+-- ── MONTH-WINDOW AGGREGATES + KEYSET LISTING ───────────────
+-- Budget / savings / snapshot sums filter on (user_id, date) ranges;
+-- GET /api/expenses?limit= walks the same index backwards on (date, id)
+CREATE INDEX IF NOT EXISTS idx_expenses_user_date
+    ON expenses(user_id, date, id);
+
+-- GET /api/lending?limit= walks (date DESC, id DESC) like the expense listing
+CREATE INDEX IF NOT EXISTS idx_lending_user_date
+    ON lending(user_id, date, id);
+
+-- ── FILTERED EXPENSE LISTING ───────────────────────────────
+-- Equality filter first, then the keyset order columns
+CREATE INDEX IF NOT EXISTS idx_expenses_user_category_date
+    ON expenses(user_id, category, date, id);
+
+CREATE INDEX IF NOT EXISTS idx_expenses_user_payment_date
+    ON expenses(user_id, payment_method, date, id);
+
+-- recurringOnly=true only ever touches generated rows
+CREATE INDEX IF NOT EXISTS idx_expenses_user_recurring_date
+    ON expenses(user_id, date, id) WHERE recurring_id IS NOT NULL;
+
+-- Superseded by idx_expenses_user_payment_date
+DROP INDEX IF EXISTS idx_expenses_payment;
+
+-- ── MONTHLY SPEND ROLLUP ───────────────────────────────────
+-- Maintained by ExpenseService / RecurringScheduler on every write
+CREATE TABLE IF NOT EXISTS monthly_spend (
+    id              UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id         BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    spend_year      INT NOT NULL,
+    spend_month     INT NOT NULL,
+    category        VARCHAR(255) NOT NULL,
+    payment_method  VARCHAR(50) NOT NULL,
+    amount          NUMERIC(19,4) NOT NULL DEFAULT 0,
+    expense_count   INT NOT NULL DEFAULT 0,
+    updated_at      TIMESTAMPTZ NOT NULL,
+    UNIQUE(user_id, spend_year, spend_month, category, payment_method)
+    );
+
+-- Backfill from existing expenses (UTC months, same as the application)
+INSERT INTO monthly_spend (user_id, spend_year, spend_month, category, payment_method,
+                           amount, expense_count, updated_at)
+SELECT user_id,
+       EXTRACT(YEAR FROM date AT TIME ZONE 'UTC')::INT,
+       EXTRACT(MONTH FROM date AT TIME ZONE 'UTC')::INT,
+       category,
+       payment_method,
+       SUM(amount),
+       COUNT(*),
+       NOW()
+FROM expenses
+GROUP BY 1, 2, 3, 4, 5
+ON CONFLICT (user_id, spend_year, spend_month, category, payment_method) DO NOTHING;
+
+-- Verify / repair later with: java -jar app.jar --ledger.rebuild=true
+
+-- ── BATCH JOB CHECKPOINTS ──────────────────────────────────
+-- One row per job; MonthlySnapshotScheduler resumes from last_id
+CREATE TABLE IF NOT EXISTS job_checkpoints (
+    job_name        VARCHAR(100) PRIMARY KEY,
+    run_key         VARCHAR(50) NOT NULL,
+    last_id         BIGINT NOT NULL,
+    processed_count BIGINT NOT NULL,
+    status          VARCHAR(20) NOT NULL,
+    updated_at      TIMESTAMPTZ NOT NULL
+    );
+
+-- ── RECURRING GENERATION (exactly-once occurrences) ────────
+ALTER TABLE expenses ADD COLUMN IF NOT EXISTS occurrence_date DATE;
+
+-- Backfill generated rows whose (template, UTC day) is unambiguous
+UPDATE expenses e
+SET occurrence_date = (e.date AT TIME ZONE 'UTC')::DATE
+WHERE e.recurring_id IS NOT NULL
+  AND e.occurrence_date IS NULL
+  AND NOT EXISTS (
+    SELECT 1 FROM expenses d
+    WHERE d.recurring_id = e.recurring_id
+      AND d.id <> e.id
+      AND (d.date AT TIME ZONE 'UTC')::DATE = (e.date AT TIME ZONE 'UTC')::DATE
+);
+
+-- ADD CONSTRAINT has no IF NOT EXISTS; guard it so the script stays re-runnable
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_expenses_recurring_occurrence') THEN
+        ALTER TABLE expenses
+            ADD CONSTRAINT uk_expenses_recurring_occurrence UNIQUE (recurring_id, occurrence_date);
+    END IF;
+END;
+$$;
+
+-- Scheduler pages due templates by (next_due_at, id)
+CREATE INDEX IF NOT EXISTS idx_recurring_due
+    ON recurring_expenses(next_due_at, id)
+    WHERE active = true;
+
+-- ── JOB LEASES (one replica per job partition) ─────────────
+CREATE TABLE IF NOT EXISTS job_leases (
+    lease_name  VARCHAR(100) PRIMARY KEY,
+    owner       VARCHAR(100) NOT NULL,
+    acquired_at TIMESTAMPTZ NOT NULL,
+    expires_at  TIMESTAMPTZ NOT NULL
+    );
+
+-- ── SHARED RATE-LIMIT BUCKETS (ratelimit.store=jdbc) ───────
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    id         VARCHAR(255) PRIMARY KEY,
+    state      BYTEA,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+    );
+
+-- Bucket4j only writes id/state; stamp every write so idle rows can be purged
+CREATE OR REPLACE FUNCTION touch_rate_limit_bucket() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at = NOW();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_rate_limit_bucket_touch ON rate_limit_buckets;
+CREATE TRIGGER trg_rate_limit_bucket_touch
+    BEFORE UPDATE ON rate_limit_buckets
+    FOR EACH ROW EXECUTE FUNCTION touch_rate_limit_bucket();
+
+CREATE INDEX IF NOT EXISTS idx_rate_limit_buckets_updated ON rate_limit_buckets(updated_at);
+
+-- ── LENDING SUMMARY (grouped totals) ───────────────────────
+-- GET /api/lending/summary groups by (type, status); INCLUDE makes it index-only
+CREATE INDEX IF NOT EXISTS idx_lending_user_type_status
+    ON lending(user_id, type, status) INCLUDE (original_amount, returned_amount);
+
+-- Distinct person names for autocomplete, in name order
+CREATE INDEX IF NOT EXISTS idx_lending_user_person
+    ON lending(user_id, person_name);
+
+-- ── LENDING PAYMENTS (bulk fetch per page) ────────────────
+-- Payments of a page of lendings are fetched with one lending_id IN (...) query
+CREATE INDEX IF NOT EXISTS idx_lending_payments_lending
+    ON lending_payments(lending_id, date);
+
+-- ── LENDING OPTIMISTIC LOCKING ─────────────────────────────
+-- @Version on Lending; recordPayment's conditional UPDATE increments it as well
+ALTER TABLE lending ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- ── CONDITIONAL GET (per-user data version) ────────────────
+-- Bumped in the same transaction as every user-visible write; the ETag of the polled reads
+CREATE TABLE IF NOT EXISTS user_data_versions (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    version BIGINT NOT NULL DEFAULT 0
+    );
+
+INSERT INTO user_data_versions (user_id, version)
+SELECT id, 0 FROM users
+ON CONFLICT (user_id) DO NOTHING;